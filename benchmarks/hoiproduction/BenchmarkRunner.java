@@ -22,35 +22,18 @@ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
 
-import java.util.concurrent.RecursiveAction;
-
-public class SimulationProcessor extends RecursiveAction {
-    private static final int SPLIT_THRESHOLD = 50;
-
-    private final Country[] toProcess;
-    private final int startPoint;
-    private final int length;
-    private final int duration;
-
-    public SimulationProcessor(Country[] countryInstances, int start, int length, int duration) {
-        toProcess = countryInstances;
-        startPoint = start;
-        this.length = length;
-        this.duration = duration;
-    }
-
-    @Override
-    protected void compute() {
-        if (length <= SPLIT_THRESHOLD) {
-            processDirectly();
-        } else {
-            int splitPoint = length / 2;
-            invokeAll(new SimulationProcessor(toProcess, startPoint, splitPoint, duration), new SimulationProcessor(toProcess, startPoint + splitPoint, length - splitPoint, duration));
-        }
-    }
-    private void processDirectly() {
-        for (int i = startPoint; i < startPoint + length; i++) {
-            toProcess[i].calculateResults(i, duration);
-        }
+package hoiproduction;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+public class BenchmarkRunner {
+    //same as the normal jmh main, but always with the gc profiler so allocation rates are reported next to the timings
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        new Runner(new OptionsBuilder().parent(new CommandLineOptions(args)).addProfiler(GCProfiler.class).build()).run();
     }
 }
@@ -0,0 +1,81 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@org.openjdk.jmh.annotations.State(Scope.Benchmark)
+public class SimulationBenchmark {
+    //1936 to the start of barbarossa, the default target
+    private static final int DURATION = 1998;
+
+    private Country mediumCountry;
+    private Country largeCountry;
+    private ForkJoinPool pool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //roughly a mid-sized european power and the soviet union
+        mediumCountry = SyntheticData.createCountry("MED", 40, 1);
+        largeCountry = SyntheticData.createCountry("BIG", 150, 2);
+        pool = SimulationProcessor.getSharedPool();
+    }
+
+    @Benchmark
+    public double singleCutoff() {
+        Country instance = mediumCountry.copy();
+        instance.calculateResults(DURATION / 2, DURATION);
+        return instance.getMilProduction();
+    }
+    @Benchmark
+    public SweepResults fullSweep() {
+        SweepResults results = new SweepResults(DURATION);
+        pool.invoke(new SimulationProcessor(mediumCountry.copy(), DURATION, results));
+        return results;
+    }
+    @Benchmark
+    public SweepResults largeCountrySweep() {
+        SweepResults results = new SweepResults(DURATION);
+        pool.invoke(new SimulationProcessor(largeCountry.copy(), DURATION, results));
+        return results;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+public class SyntheticData {
+    //made up countries and game files so the benchmarks don't need a copy of the game
+    private static final State.IndustrialLevel[] INDUSTRIAL_LEVELS = {State.IndustrialLevel.pastoral, State.IndustrialLevel.rural,
+            State.IndustrialLevel.town, State.IndustrialLevel.large_town, State.IndustrialLevel.city, State.IndustrialLevel.large_city,
+            State.IndustrialLevel.metropolis};
+
+    private SyntheticData() {}
+
+    public static Country createCountry(String name, int stateCount, long seed) {
+        Random random = new Random(seed);
+        State[] states = new State[stateCount];
+        for (int i = 0; i < stateCount; i++) {
+            State.IndustrialLevel industrialLevel = INDUSTRIAL_LEVELS[random.nextInt(INDUSTRIAL_LEVELS.length)];
+            states[i] = new State(1 + random.nextInt(5), industrialLevel, random.nextInt(3) == 0 ? 1 : 0, random.nextInt(2),
+                    random.nextInt(4), random.nextInt(3));
+        }
+        return new Country(states, 0.5, 0.3, name);
+    }
+    public static void writeGameFiles(Path historyDirectory, int countryCount, int statesPerCountry, long seed) throws IOException {
+        //writes history/countries and history/states in the same layout as the game, including the usual clutter
+        Random random = new Random(seed);
+        Path countriesDirectory = Files.createDirectories(historyDirectory.resolve("countries"));
+        Path statesDirectory = Files.createDirectories(historyDirectory.resolve("states"));
+        int stateId = 1;
+        for (int country = 0; country < countryCount; country++) {
+            String countryCode = String.format("C%02d", country);
+            String countryFile = "capital = " + stateId + "\n\nset_stability = 0." + (3 + random.nextInt(6)) + "\nset_war_support = 0."
+                    + random.nextInt(6) + "\n# politics\nset_politics = {\n\truling_party = neutrality\n\tlast_election = \"1932.11.8\"\n}\n";
+            Files.write(countriesDirectory.resolve(countryCode + " - Country " + country + ".txt"), countryFile.getBytes(StandardCharsets.UTF_8));
+            for (int i = 0; i < statesPerCountry; i++) {
+                State.IndustrialLevel industrialLevel = INDUSTRIAL_LEVELS[random.nextInt(INDUSTRIAL_LEVELS.length)];
+                String stateFile = "\uFEFFstate={\n\tid=" + stateId + "\n\tname=\"STATE_" + stateId + "\" # comment\n\tmanpower = " + random.nextInt(1000000)
+                        + "\n\n\tstate_category = " + industrialLevel + "\n\n\thistory={\n\t\towner = " + countryCode
+                        + "\n\t\tvictory_points = { " + stateId + " 1 }\n\t\tbuildings = {\n\t\t\tinfrastructure = " + (1 + random.nextInt(5))
+                        + "\n\t\t\tindustrial_complex = " + random.nextInt(4) + "\n\t\t\tarms_factory = " + random.nextInt(3)
+                        + "\n\t\t\t" + stateId + " = {\n\t\t\t\tnaval_base = 1\n\t\t\t}\n\t\t}\n\t\tadd_core_of = " + countryCode
+                        + "\n\t\t1939.1.1 = {\n\t\t\towner = C00\n\t\t}\n\t}\n\n\tprovinces={\n\t\t" + stateId + " " + (stateId + 5000)
+                        + " " + (stateId + 10000) + " \n\t}\n\tlocal_supplies=0.0\n}\n";
+                Files.write(statesDirectory.resolve(stateId + "-STATE_" + stateId + ".txt"), stateFile.getBytes(StandardCharsets.UTF_8));
+                stateId++;
+            }
+        }
+    }
+}
@@ -0,0 +1,277 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class BatchRunner {
+    //runs the cutoff analysis for many countries and dates without the window, printing each result as soon as it is done
+    private final GameDataLoader.CountryIndex countryIndex;
+    private final boolean optimise;
+    private final boolean useEfficiencyTable;
+    //how long to spend looking for a multi-phase strategy for each country and date, none are looked for if 0
+    private final long strategyTimeBudget;
+    //how many randomly changed versions of each country to search, or 0 to only search the country itself
+    private final int scenarioCount;
+    //where to write every day of every sweep, or null to not write them
+    private final File trajectoryDirectory;
+    private final ForkJoinPool pool = SimulationProcessor.getSharedPool();
+    //options which need a value after them
+    private static final List<String> VALUE_OPTIONS = Arrays.asList("--countries", "--dates", "--history", "--strategy", "--scenarios", "--trajectories");
+    //the same scenarios are tried every time so runs can be compared
+    private static final long SCENARIO_SEED = 1936;
+
+    private BatchRunner(GameDataLoader.CountryIndex countryIndex, boolean optimise, boolean useEfficiencyTable, long strategyTimeBudget,
+                        int scenarioCount, File trajectoryDirectory) {
+        this.countryIndex = countryIndex;
+        this.optimise = optimise;
+        this.useEfficiencyTable = useEfficiencyTable;
+        this.strategyTimeBudget = strategyTimeBudget;
+        this.scenarioCount = scenarioCount;
+        this.trajectoryDirectory = trajectoryDirectory;
+    }
+    public static void run(String[] args, String defaultHistoryPath, String defaultEndDate) {
+        //options: --countries SOV,GER (or all), --dates 22-06-1941,01-09-1939, --history path, --optimise, --table, --metrics,
+        // --strategy seconds, --scenarios count, --trajectories directory
+        String historyPath = defaultHistoryPath;
+        String countries = "all";
+        String dates = defaultEndDate;
+        boolean optimise = false;
+        boolean useEfficiencyTable = false;
+        boolean showMetrics = false;
+        long strategyTimeBudget = 0;
+        int scenarioCount = 0;
+        File trajectoryDirectory = null;
+        for (int i = 0; i < args.length; i++) {
+            if (VALUE_OPTIONS.contains(args[i]) && i + 1 == args.length) {
+                System.out.println(args[i] + " needs a value after it");
+                return;
+            }
+            switch (args[i]) {
+                case "--countries":
+                    countries = args[++i];
+                    break;
+                case "--dates":
+                    dates = args[++i];
+                    break;
+                case "--history":
+                    historyPath = args[++i];
+                    break;
+                case "--optimise":
+                    optimise = true;
+                    break;
+                case "--table":
+                    useEfficiencyTable = true;
+                    break;
+                case "--metrics":
+                    showMetrics = true;
+                    break;
+                case "--strategy":
+                    double seconds;
+                    try {
+                        seconds = Double.parseDouble(args[++i]);
+                    } catch (NumberFormatException e) {
+                        seconds = Double.NaN;
+                    }
+                    if (!(seconds > 0) || Double.isInfinite(seconds)) {
+                        System.out.println("--strategy needs a number of seconds above 0, not " + args[i]);
+                        return;
+                    }
+                    strategyTimeBudget = Math.max(1, (long) (seconds * 1000));
+                    break;
+                case "--scenarios":
+                    try {
+                        scenarioCount = Integer.parseInt(args[++i]);
+                    } catch (NumberFormatException e) {
+                        scenarioCount = 0;
+                    }
+                    if (scenarioCount <= 0) {
+                        System.out.println("--scenarios needs a whole number above 0, not " + args[i]);
+                        return;
+                    }
+                    break;
+                case "--trajectories":
+                    trajectoryDirectory = new File(args[++i]);
+                    break;
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    return;
+            }
+        }
+        //only one kind of search can be run for each country and date
+        int modeCount = (optimise ? 1 : 0) + (strategyTimeBudget > 0 ? 1 : 0) + (scenarioCount > 0 ? 1 : 0);
+        if (modeCount > 1) {
+            System.out.println("Only one of --optimise, --strategy and --scenarios can be used at once");
+            return;
+        }
+        //trajectories are only written by full sweeps, the searches skip most of the runs
+        if (trajectoryDirectory != null && modeCount > 0) {
+            System.out.println("--trajectories can't be used with --optimise, --strategy or --scenarios");
+            return;
+        }
+        if (trajectoryDirectory != null && !trajectoryDirectory.isDirectory() && !trajectoryDirectory.mkdirs()) {
+            System.out.println(trajectoryDirectory + " could not be created");
+            return;
+        }
+        GameDataLoader.CountryIndex countryIndex = GameDataLoader.getCountryIndex(historyPath, !countries.equals("all"));
+        TreeSet<String> countryCodes = new TreeSet<>();
+        if (countries.equals("all")) {
+            countryCodes.addAll(countryIndex.getCountryCodes());
+        } else {
+            countryCodes.addAll(Arrays.asList(countries.split(",")));
+        }
+        new BatchRunner(countryIndex, optimise, useEfficiencyTable, strategyTimeBudget, scenarioCount, trajectoryDirectory).runAll(countryCodes, dates.split(","));
+        if (showMetrics) {
+            Metrics.report(System.out);
+        }
+    }
+    private void runAll(TreeSet<String> countryCodes, String[] rawDates) {
+        ArrayList<CountryRun> runs = new ArrayList<>();
+        for (String countryCode : countryCodes) {
+            Country country = countryIndex.getCountry(countryCode);
+            if (country == null) {
+                System.out.println(countryCode + " could not be found");
+                continue;
+            }
+            for (String rawDate : rawDates) {
+                try {
+                    int duration = Main.getDuration(rawDate);
+                    if (duration < 0) {
+                        System.out.println(rawDate + " is before the game starts");
+                        continue;
+                    }
+                    runs.add(new CountryRun(country.copy(useEfficiencyTable), rawDate, duration));
+                } catch (ParseException e) {
+                    System.out.println(rawDate + " is not a valid date");
+                }
+            }
+        }
+        //start the most expensive runs first so a big country isn't left running on its own at the end, idle threads
+        // take work from the big sweeps once they run out of runs to start
+        runs.sort(Comparator.comparingDouble(CountryRun::getEstimatedCost).reversed());
+        for (CountryRun run : runs) {
+            pool.execute(run);
+        }
+        for (CountryRun run : runs) {
+            run.join();
+        }
+    }
+    private static String describeSpread(String name, Histogram histogram) {
+        return String.format("%s=[p5=%d p25=%d p50=%d p75=%d p95=%d mean=%.0f]", name, histogram.getPercentile(0.05), histogram.getPercentile(0.25),
+                histogram.getPercentile(0.5), histogram.getPercentile(0.75), histogram.getPercentile(0.95), histogram.getMean());
+    }
+    private static synchronized void printResult(String result) {
+        System.out.println(result);
+    }
+
+    private class CountryRun extends RecursiveAction {
+        private final Country country;
+        private final String rawDate;
+        private final int duration;
+
+        private CountryRun(Country country, String rawDate, int duration) {
+            this.country = country;
+            this.rawDate = rawDate;
+            this.duration = duration;
+        }
+        private double getEstimatedCost() {
+            //every cutoff simulates up to the whole duration, and each day costs roughly one step per state and factory cohort
+            double sweepCost = (double) duration * duration * (country.countStates() + 1);
+            if (scenarioCount > 0) {
+                return sweepCost / Math.max(1, duration) * scenarioCount;
+            }
+            return optimise || strategyTimeBudget > 0 ? sweepCost / Math.max(1, duration) : sweepCost;
+        }
+
+        @Override
+        protected void compute() {
+            long startTime = System.nanoTime();
+            String result;
+            if (scenarioCount > 0) {
+                ScenarioSweep scenarios = new ScenarioSweep(country, duration, scenarioCount, SCENARIO_SEED);
+                scenarios.invoke();
+                ScenarioSweep.Summary summary = scenarios.getSummary();
+                result = String.format("%s %s days=%d scenarios=%d", country.getName(), rawDate, duration, summary.getBestCutoffs().getCount())
+                        + describeSpread(" bestDay", summary.getBestCutoffs()) + describeSpread(" production", summary.getMilProductions())
+                        + describeSpread(" civs", summary.getCivFactories()) + describeSpread(" mils", summary.getMilFactories());
+            } else if (strategyTimeBudget > 0) {
+                StrategyOptimiser.Result best = new StrategyOptimiser(country, duration, strategyTimeBudget).findBestStrategy();
+                result = String.format("%s %s days=%d production=%.0f singleSwitch=%.0f (%+.2f%%) civs=%d mils=%d simulations=%d strategy=[%s]",
+                        country.getName(), rawDate, duration, best.getMilProduction(), best.getSingleSwitchMilProduction(),
+                        100 * (best.getMilProduction() / Math.max(1, best.getSingleSwitchMilProduction()) - 1), best.getCivFactories(),
+                        best.getMilFactories(), best.getSimulationsRun(), best.getBestPolicy());
+            } else if (optimise) {
+                CutoffOptimiser.Result best = new CutoffOptimiser(country, duration).findBestCutoff();
+                result = String.format("%s %s days=%d bestDay=%d (%.2f years) production=%.0f civs=%d mils=%d simulations=%d",
+                        country.getName(), rawDate, duration, best.getBestCutoff(), best.getBestCutoff() / 365.0,
+                        best.getMilProduction(), best.getCivFactories(), best.getMilFactories(), best.getSimulationsRun());
+            } else {
+                SweepResults results = new SweepResults(duration);
+                TrajectoryRecorder trajectoryRecorder = null;
+                if (trajectoryDirectory != null) {
+                    try {
+                        trajectoryRecorder = new TrajectoryRecorder(new File(trajectoryDirectory, country.getName() + "-" + rawDate + ".trajectory"), duration);
+                        results.setTrajectoryRecorder(trajectoryRecorder);
+                    } catch (IOException e) {
+                        printResult(country.getName() + " " + rawDate + " trajectories could not be written: " + e.getMessage());
+                    }
+                }
+                try {
+                    new SimulationProcessor(country, duration, results).invoke();
+                } finally {
+                    if (trajectoryRecorder != null) {
+                        trajectoryRecorder.close();
+                    }
+                }
+                int bestCutoff = 0;
+                double totalProduction = 0;
+                for (int i = 0; i < duration; i++) {
+                    totalProduction += results.getMilProduction(i);
+                    if (results.getMilProduction(i) > results.getMilProduction(bestCutoff)) {
+                        bestCutoff = i;
+                    }
+                }
+                if (duration == 0) {
+                    result = String.format("%s %s days=0", country.getName(), rawDate);
+                } else {
+                    result = String.format("%s %s days=%d bestDay=%d (%.2f years) production=%.0f civs=%d mils=%d switchAtStart=%.0f neverSwitch=%.0f mean=%.0f",
+                            country.getName(), rawDate, duration, bestCutoff, bestCutoff / 365.0, results.getMilProduction(bestCutoff),
+                            results.getCivFactories(bestCutoff), results.getMilFactories(bestCutoff), results.getMilProduction(0),
+                            results.getMilProduction(duration - 1), totalProduction / duration);
+                }
+            }
+            printResult(result + String.format(" time=%dms", (System.nanoTime() - startTime) / 1000000));
+        }
+    }
+}
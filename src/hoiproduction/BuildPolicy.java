@@ -0,0 +1,39 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+public interface BuildPolicy {
+    //decides what each new construction project should be, a project which has already been started is always finished
+    // first whatever the policy says
+    //stateIndex is the state's position in the country counting every state on its own, so it is the same whether or not
+    // identical states are grouped, constructionShare is how much of the day's construction has already been handed out
+    // to earlier projects (0 for the first project of the day, always below 1)
+    boolean buildsMilitary(int currentDay, int stateIndex, double constructionShare);
+
+    static BuildPolicy cutoff(int cutoffDay) {
+        //the usual strategy, only civs before the cutoff day and only mils from then on
+        return (currentDay, stateIndex, constructionShare) -> currentDay >= cutoffDay;
+    }
+}
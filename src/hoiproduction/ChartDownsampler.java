@@ -0,0 +1,110 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.Arrays;
+
+public class ChartDownsampler {
+    //picks which points of a long series to draw so a graph costs the same to repaint however many points it has,
+    // using largest triangle three buckets which keeps the points that change the shape of the line the most
+
+    private ChartDownsampler() {}
+
+    public static int[] selectPoints(double[] x, double[] y, int from, int to, int pointCount, int keepIndex) {
+        //returns the indices of the chosen points between from and to (exclusive) in order, always including the first,
+        // the last and keepIndex if it is in range, so a peak can be shown exactly
+        int length = to - from;
+        if (length <= 0) {
+            return new int[0];
+        }
+        if (pointCount < 3 || length <= pointCount) {
+            int[] toReturn = new int[length];
+            for (int i = 0; i < length; i++) {
+                toReturn[i] = from + i;
+            }
+            return toReturn;
+        }
+        int[] toReturn = new int[pointCount];
+        int count = 0;
+        toReturn[count++] = from;
+        //the first and last points are always kept, everything between is split into equal buckets which get one point each
+        double bucketSize = (double) (length - 2) / (pointCount - 2);
+        int previous = from;
+        for (int bucket = 0; bucket < pointCount - 2; bucket++) {
+            int bucketStart = from + 1 + (int) (bucket * bucketSize);
+            int bucketEnd = from + 1 + (int) ((bucket + 1) * bucketSize);
+            if (keepIndex >= bucketStart && keepIndex < bucketEnd) {
+                previous = keepIndex;
+                toReturn[count++] = previous;
+                continue;
+            }
+            //the point chosen from this bucket makes the biggest triangle with the point before it and the middle of the
+            // next bucket
+            int nextStart = bucketEnd;
+            int nextEnd = Math.min(to, Math.max(nextStart + 1, from + 1 + (int) ((bucket + 2) * bucketSize)));
+            double nextX = 0;
+            double nextY = 0;
+            for (int i = nextStart; i < nextEnd; i++) {
+                nextX += x[i];
+                nextY += y[i];
+            }
+            nextX /= nextEnd - nextStart;
+            nextY /= nextEnd - nextStart;
+            int chosen = bucketStart;
+            double largestArea = -1;
+            for (int i = bucketStart; i < bucketEnd; i++) {
+                //twice the area, which is enough to compare them
+                double area = Math.abs((x[previous] - nextX) * (y[i] - y[previous]) - (x[previous] - x[i]) * (nextY - y[previous]));
+                if (area > largestArea) {
+                    largestArea = area;
+                    chosen = i;
+                }
+            }
+            previous = chosen;
+            toReturn[count++] = previous;
+        }
+        toReturn[count] = to - 1;
+        return toReturn;
+    }
+    public static int[] merge(int[] first, int[] second) {
+        //both must be in order, the result is in order with no index repeated
+        int[] toReturn = new int[first.length + second.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while (i < first.length || j < second.length) {
+            int next;
+            if (j == second.length || (i < first.length && first[i] <= second[j])) {
+                next = first[i++];
+            } else {
+                next = second[j++];
+            }
+            if (count == 0 || toReturn[count - 1] != next) {
+                toReturn[count++] = next;
+            }
+        }
+        return Arrays.copyOf(toReturn, count);
+    }
+}
@@ -0,0 +1,469 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Country {
+    //general constants
+    private static final double PRODUCTION_PER_CIV_FACTORY = 5;
+    private static final double BASE_POLITICAL_POWER_GAIN = 1.0;
+    private static final int MAXIMUM_CIV_FACTORIES_PER_PROJECT = 15;
+    private static final double MAXIMUM_PROJECT_CONSTRUCTION = MAXIMUM_CIV_FACTORIES_PER_PROJECT * PRODUCTION_PER_CIV_FACTORY;
+    private static final double STABILITY_MAXIMUM_FACTORY_BONUS = 0.2;
+    private static final double STABILITY_MAXIMUM_FACTORY_PENALTY = -0.5;
+
+    //research constants, when each tech is researched is in the country's ResearchPlan
+    private final static double CONSTRUCTION_TECHNOLOGY_INCREMENT = 0.1;
+    private final static double INDUSTRY_TECHNOLOGY_SLOT_INCREMENT = 0.2;
+    private final static double INDUSTRY_TECHNOLOGY_PRODUCTION_INCREMENT = 0.15;
+    private final static double TOOLS_TECHNOLOGY_CAP_INCREMENT = 0.1;
+    private final static double TOOLS_SPECIAL_GAIN_INCREMENT = 0.1;
+
+    //general properties
+    private final String name;
+    private final double stability;
+    private final double warSupport;
+    //identical states next to each other are kept as one group, and split apart once construction treats them differently,
+    // turning it off gives the same results more slowly
+    private final boolean groupsStates;
+    private final ArrayList<State> states;
+    private int stateCount;
+    //states are shared with snapshots until one side needs to change them, so a snapshot only copies the states which
+    // are still being built in (full states are never changed again), this marks which ones this country may change
+    private boolean[] ownedStates = new boolean[0];
+    private int ownedStateCount;
+    private final MilFactoryStore milFactoryStore;
+    private final LongAdder simulatedDays;
+    private final ResearchPlan researchPlan;
+    private final TechTimeline techTimeline;
+    private EconomyTech economyTech = EconomyTech.civilian; //almost all nations start at civilian so this is fine for now
+    //null unless every day of the simulation should be written out, never copied by snapshot()
+    private DayRecorder dayRecorder;
+
+    //running totals, the factory counts are updated as factories are finished rather than counted from every state
+    private double totalMilProduction;
+    private int civFactories;
+    private int milFactories;
+    //indexes of the states which can still be built in, in the order construction is handed out, only changed when a
+    // factory fills a state or a tech changes how many slots each state has
+    private int[] buildableStates = new int[0];
+    private int buildableStateCount;
+    private double buildingSlotsBonus;
+    //tech progressions
+    private int constructionTechLevel = 0;
+    private int industryTechLevel = 0;
+    private int toolsTechLevel = 0;
+    private int toolsSpecialLevel = 0;
+    //where this country is up to in its tech timeline
+    private int nextTechEvent = 0;
+    private int nextTechDay;
+    private enum EconomyTech {
+        civilian(0.00, 150, 0.35, -0.3, -0.3),
+        early   (0.15, 150, 0.30, -0.1, -0.1),
+        partial (0.25, 150, 0.25, +0.0, +0.1),
+        war     (0.50, 150, 0.20, +0.0, +0.2);
+        //total mobilisation should go here, but it is ignored because the manpower decrease it causes cannot be considered
+        private final double warSupport;
+        private final double politicalPowerCost;
+        private final double consumerGoods;
+        private final double civConstructionBonus;
+        private final double milConstructionBonus;
+        EconomyTech(double warSupport, double politicalPowerCost, double consumerGoods, double civConstructionBonus, double milConstructionBonus) {
+            this.warSupport = warSupport;
+            this.politicalPowerCost = politicalPowerCost;
+            this.consumerGoods = consumerGoods;
+            this.civConstructionBonus = civConstructionBonus;
+            this.milConstructionBonus = milConstructionBonus;
+        }
+    }
+    public Country(State[] initialStates, double stability, double warSupport, String name) {
+        this(initialStates, stability, warSupport, name, false);
+    }
+    public Country(State[] initialStates, double stability, double warSupport, String name, boolean useEfficiencyTable) {
+        this(initialStates, stability, warSupport, name, useEfficiencyTable, ResearchPlan.DEFAULT);
+    }
+    public Country(State[] initialStates, double stability, double warSupport, String name, boolean useEfficiencyTable, ResearchPlan researchPlan) {
+        this(initialStates, stability, warSupport, name, useEfficiencyTable, researchPlan, true);
+    }
+    public Country(State[] initialStates, double stability, double warSupport, String name, boolean useEfficiencyTable, ResearchPlan researchPlan,
+                   boolean groupsStates) {
+        this(stability, warSupport, name, new MilFactoryStore(useEfficiencyTable), Metrics.getSimulatedDaysCounter(name),
+                researchPlan, createTechTimeline(warSupport, researchPlan), groupsStates);
+        for (State state : initialStates) {
+            addState(state);
+        }
+    }
+    private Country(double stability, double warSupport, String name, MilFactoryStore milFactoryStore, LongAdder simulatedDays,
+                    ResearchPlan researchPlan, TechTimeline techTimeline, boolean groupsStates) {
+        this.groupsStates = groupsStates;
+        states = new ArrayList<>();
+        this.stability = stability;
+        this.warSupport = warSupport;
+        this.name = name;
+        this.milFactoryStore = milFactoryStore;
+        this.simulatedDays = simulatedDays;
+        this.researchPlan = researchPlan;
+        this.techTimeline = techTimeline;
+        nextTechDay = techTimeline.getDay(0);
+    }
+    private static TechTimeline createTechTimeline(double warSupport, ResearchPlan researchPlan) {
+        //every tech is researched on the same day in every run, and since political power is never spent the economy
+        // laws only depend on war support, so all of them can be worked out before the simulation starts
+        ArrayList<Integer> days = new ArrayList<>();
+        ArrayList<TechTimeline.Event> events = new ArrayList<>();
+        for (TechTimeline.Event tech : new TechTimeline.Event[] {TechTimeline.Event.construction, TechTimeline.Event.industry,
+                TechTimeline.Event.tools, TechTimeline.Event.toolsSpecial}) {
+            for (int completionDay : researchPlan.getCompletionDays(tech)) {
+                days.add(completionDay);
+                events.add(tech);
+            }
+        }
+        //political power is gained during each day, and a law adopted that day already affects that day's construction,
+        // so it happens at the start of the day the same as the techs
+        int politicalPower = 0;
+        EconomyTech economyTech = EconomyTech.civilian;
+        for (int currentDay = 0; economyTech != EconomyTech.war; currentDay++) {
+            politicalPower += BASE_POLITICAL_POWER_GAIN;
+            EconomyTech nextEconomyTech = EconomyTech.values()[economyTech.ordinal() + 1];
+            if (nextEconomyTech.warSupport > warSupport) {
+                break;
+            }
+            if (nextEconomyTech.politicalPowerCost <= politicalPower) {
+                economyTech = nextEconomyTech;
+                days.add(currentDay);
+                events.add(TechTimeline.Event.economyLaw);
+            }
+        }
+        return new TechTimeline(days, events);
+    }
+    public Country copy() {
+        return copy(milFactoryStore.usesEfficiencyTable());
+    }
+    public Country copy(boolean useEfficiencyTable) {
+        //useEfficiencyTable chooses whether factory efficiency should be read from a precomputed table
+        return copy(useEfficiencyTable, stability, warSupport, researchPlan);
+    }
+    public Country copy(double stability, double warSupport, ResearchPlan researchPlan) {
+        //a fresh copy with its own starting stability and war support, and techs researched at different times
+        return copy(milFactoryStore.usesEfficiencyTable(), stability, warSupport, researchPlan);
+    }
+    private Country copy(boolean useEfficiencyTable, double stability, double warSupport, ResearchPlan researchPlan) {
+        long startTime = Metrics.start();
+        State[] newStateList = new State[stateCount];
+        int position = 0;
+        for (State state : states) {
+            //groups are taken apart here and put back together as the copy adds them
+            for (int i = 0; i < state.getCount(); i++) {
+                newStateList[position++] = new State(state.getInfrastructureLevel(), state.getIndustrialLevel(), state.getBonusBuildingSlots(), state.getDockyards(), state.getCivFactories(), state.getMilFactories());
+            }
+        }
+        Country toReturn = new Country(newStateList, stability, warSupport, name, useEfficiencyTable, researchPlan, groupsStates);
+        Metrics.record(Metrics.Phase.copy, name, startTime);
+        return toReturn;
+    }
+    public Country snapshot() {
+        //unlike copy() this keeps all of the progress made so far, so a simulation can be continued from this point
+        return snapshot(false);
+    }
+    public Country temporarySnapshot() {
+        //the same as snapshot(), but this country keeps the states it already owns instead of having to copy them again,
+        // so the snapshot must be finished with before this country is simulated any further
+        return snapshot(true);
+    }
+    private Country snapshot(boolean temporary) {
+        Country toReturn = new Country(stability, warSupport, name, milFactoryStore.copy(), simulatedDays, researchPlan, techTimeline, groupsStates);
+        toReturn.states.addAll(states);
+        toReturn.stateCount = stateCount;
+        toReturn.ownedStates = new boolean[states.size()];
+        //neither country can change the states they now share without copying them first, a finished run which is only
+        // ever snapshotted owns nothing so this doesn't write to it
+        if (!temporary && ownedStateCount != 0) {
+            Arrays.fill(ownedStates, false);
+            ownedStateCount = 0;
+        }
+        toReturn.economyTech = economyTech;
+        toReturn.totalMilProduction = totalMilProduction;
+        toReturn.civFactories = civFactories;
+        toReturn.milFactories = milFactories;
+        toReturn.buildableStates = buildableStates.clone();
+        toReturn.buildableStateCount = buildableStateCount;
+        toReturn.buildingSlotsBonus = buildingSlotsBonus;
+        toReturn.constructionTechLevel = constructionTechLevel;
+        toReturn.industryTechLevel = industryTechLevel;
+        toReturn.toolsTechLevel = toolsTechLevel;
+        toReturn.toolsSpecialLevel = toolsSpecialLevel;
+        toReturn.nextTechEvent = nextTechEvent;
+        toReturn.nextTechDay = nextTechDay;
+        return toReturn;
+    }
+    public void calculateResults(int cutoffDay, int duration) {
+        calculateResults(0, cutoffDay, duration);
+    }
+    public void calculateResults(int startDay, int cutoffDay, int duration) {
+        calculateResults(startDay, BuildPolicy.cutoff(cutoffDay), duration);
+    }
+    public void calculateResults(int startDay, BuildPolicy buildPolicy, int duration) {
+        //continue the simulation from startDay, this country must already have been simulated up to that day
+        if (simulatedDays != null && duration > startDay) {
+            simulatedDays.add(duration - startDay);
+        }
+        for (int currentDay = startDay; currentDay < duration; currentDay++) {
+            //check for technology advancement
+            if (currentDay >= nextTechDay) {
+                checkTechProgress(currentDay);
+            }
+            //do the actual processing
+            dayLoop(currentDay, buildPolicy);
+        }
+    }
+    public void addState (State toAdd) {
+        //the factories which exist at the start of the game are placed in the store with the others
+        milFactoryStore.addFactories(toAdd.getMilFactories() * toAdd.getCount(), true);
+        toAdd.setFirstIndex(stateCount);
+        stateCount += toAdd.getCount();
+        civFactories += toAdd.getCivFactories() * toAdd.getCount();
+        milFactories += toAdd.getMilFactories() * toAdd.getCount();
+        //a state the same as the one before joins its group, so it is simulated along with it
+        if (groupsStates && !states.isEmpty() && states.get(states.size() - 1).matches(toAdd)) {
+            getOwnedState(states.size() - 1).join(toAdd);
+            return;
+        }
+        states.add(toAdd);
+        ownedStates = Arrays.copyOf(ownedStates, states.size());
+        ownedStates[states.size() - 1] = true;
+        ownedStateCount++;
+        if (toAdd.getFreeBuildingSlots(buildingSlotsBonus) != 0) {
+            if (buildableStateCount == buildableStates.length) {
+                buildableStates = Arrays.copyOf(buildableStates, Math.max(8, buildableStateCount * 2));
+            }
+            buildableStates[buildableStateCount++] = states.size() - 1;
+        }
+    }
+    private void findBuildableStates() {
+        buildableStates = new int[states.size()];
+        buildableStateCount = 0;
+        for (int i = 0; i < states.size(); i++) {
+            if (states.get(i).getFreeBuildingSlots(buildingSlotsBonus) != 0) {
+                buildableStates[buildableStateCount++] = i;
+            }
+        }
+    }
+    private State getOwnedState(int index) {
+        //copy a state shared with a snapshot before changing it
+        if (!ownedStates[index]) {
+            states.set(index, states.get(index).snapshot());
+            ownedStates[index] = true;
+            ownedStateCount++;
+        }
+        return states.get(index);
+    }
+    private void splitGroup(int buildablePosition, int keptCount) {
+        //the rest of the group becomes a new group straight after it, in both the states and the buildable states
+        int index = buildableStates[buildablePosition];
+        State rest = getOwnedState(index).split(keptCount);
+        states.add(index + 1, rest);
+        //ownedStates can be longer than states, so most splits don't need a new array
+        if (ownedStates.length < states.size()) {
+            ownedStates = Arrays.copyOf(ownedStates, Math.max(8, states.size() * 2));
+        }
+        System.arraycopy(ownedStates, index + 1, ownedStates, index + 2, states.size() - index - 2);
+        ownedStates[index + 1] = true;
+        ownedStateCount++;
+        for (int i = buildablePosition + 1; i < buildableStateCount; i++) {
+            buildableStates[i]++;
+        }
+        if (buildableStateCount == buildableStates.length) {
+            buildableStates = Arrays.copyOf(buildableStates, Math.max(8, buildableStateCount * 2));
+        }
+        System.arraycopy(buildableStates, buildablePosition + 1, buildableStates, buildablePosition + 2, buildableStateCount - buildablePosition - 1);
+        buildableStates[buildablePosition + 1] = index + 1;
+        buildableStateCount++;
+    }
+    private static int countSameChoices(BuildPolicy buildPolicy, int currentDay, int firstIndex, double constructionPoints,
+                                        double totalConstructionPoints, int projects, boolean firstChoice) {
+        //how many of the group's next projects the policy builds the same thing in, each state is asked about on its own
+        // with the share it would have been given if the group had been simulated one state at a time
+        for (int i = 1; i < projects; i++) {
+            double constructionShare = 1 - (constructionPoints - i * MAXIMUM_PROJECT_CONSTRUCTION) / totalConstructionPoints;
+            if (buildPolicy.buildsMilitary(currentDay, firstIndex + i, constructionShare) != firstChoice) {
+                return i;
+            }
+        }
+        return projects;
+    }
+    private void dayLoop(int currentDay, BuildPolicy buildPolicy) {
+        //calculate the effect of the current stability on factory output
+        double stabilityFactoryBonus;
+        if (stability >= 0.5) {
+            stabilityFactoryBonus = STABILITY_MAXIMUM_FACTORY_BONUS * (0.5 - stability);
+        } else {
+            stabilityFactoryBonus = STABILITY_MAXIMUM_FACTORY_PENALTY * (0.5 - stability);
+        }
+        //add the military production for the day to the total
+        double milProductionMultiplier = 1 + (INDUSTRY_TECHNOLOGY_PRODUCTION_INCREMENT * industryTechLevel) + stabilityFactoryBonus;
+        double milProduction = milFactoryStore.doProduction() * milProductionMultiplier;
+        totalMilProduction += milProduction;
+        //calculate how much construction to do
+        int effectiveCivFactories = (int) (civFactories - (economyTech.consumerGoods * (civFactories + milFactories)));
+        double constructionPoints = effectiveCivFactories * PRODUCTION_PER_CIV_FACTORY;
+        double totalConstructionPoints = constructionPoints;
+        if (dayRecorder != null) {
+            dayRecorder.recordDay(currentDay, civFactories, milFactories, constructionPoints, economyTech.ordinal(), milProduction);
+        }
+        //go through the states with free slots and assign the maximum number of factories to each construction until run out
+        int currentState = 0;
+        while (constructionPoints > 0 && currentState != buildableStateCount) {
+            State state = getOwnedState(buildableStates[currentState]);
+            double constructionShare = 1 - constructionPoints / totalConstructionPoints;
+            //choose whether to build civ or mil factories, carrying on with whatever the state was already building
+            boolean buildMilitary;
+            boolean policyChooses = false;
+            if (state.isCivUnderConstruction()) {
+                buildMilitary = false;
+            } else if (state.isMilUnderConstruction()) {
+                buildMilitary = true;
+            } else {
+                buildMilitary = buildPolicy.buildsMilitary(currentDay, state.getFirstIndex(), constructionShare);
+                policyChooses = true;
+            }
+            if (state.getCount() > 1) {
+                //a group can only be built in as one while every state in it gets a whole project of the same kind, the
+                // states after that are split off and carry on separately
+                int wholeProjects = (int) Math.min(state.getCount(), Math.floor(constructionPoints / MAXIMUM_PROJECT_CONSTRUCTION));
+                if (policyChooses && wholeProjects > 1) {
+                    wholeProjects = countSameChoices(buildPolicy, currentDay, state.getFirstIndex(), constructionPoints,
+                            totalConstructionPoints, wholeProjects, buildMilitary);
+                }
+                if (wholeProjects < state.getCount()) {
+                    splitGroup(currentState, Math.max(1, wholeProjects));
+                }
+            }
+            int count = state.getCount();
+            double constructionBlock = Math.min(constructionPoints, MAXIMUM_PROJECT_CONSTRUCTION);
+            constructionPoints -= constructionBlock * count;
+            //account for construction speed bonus from technology
+            constructionBlock *= (1 + (CONSTRUCTION_TECHNOLOGY_INCREMENT * constructionTechLevel));
+            boolean factoryFinished;
+            if (!buildMilitary) {
+                //use the civ construction bonus
+                constructionBlock *= (1 + economyTech.civConstructionBonus);
+                factoryFinished = state.addCivConstruction(constructionBlock);
+                if (factoryFinished) {
+                    civFactories += count;
+                }
+            } else {
+                //use the mil construction bonus
+                constructionBlock *= (1 + economyTech.milConstructionBonus);
+                factoryFinished = state.addMilConstruction(constructionBlock);
+                if (factoryFinished) {
+                    milFactories += count;
+                    milFactoryStore.addFactories(count, false);
+                }
+            }
+            if (factoryFinished && state.getFreeBuildingSlots(buildingSlotsBonus) == 0) {
+                //the state is full, the next state moves into its place in the list
+                buildableStateCount--;
+                System.arraycopy(buildableStates, currentState + 1, buildableStates, currentState, buildableStateCount - currentState);
+            } else {
+                //move on to the next state
+                currentState++;
+            }
+        }
+    }
+    private void checkTechProgress(int currentDay) {
+        //apply everything in the timeline which happens today
+        while (nextTechDay <= currentDay) {
+            switch (techTimeline.getEvent(nextTechEvent)) {
+                case construction:
+                    constructionTechLevel++;
+                    break;
+                case industry:
+                    industryTechLevel++;
+                    //the concentrated/dispersed industry tech gives every state more building slots
+                    buildingSlotsBonus = INDUSTRY_TECHNOLOGY_SLOT_INCREMENT * industryTechLevel;
+                    findBuildableStates();
+                    break;
+                case tools:
+                    toolsTechLevel++;
+                    milFactoryStore.setProductionEfficiencyCapBonus(TOOLS_TECHNOLOGY_CAP_INCREMENT * toolsTechLevel);
+                    break;
+                case toolsSpecial:
+                    toolsSpecialLevel++;
+                    milFactoryStore.setProductionEfficiencyGainBonus(TOOLS_SPECIAL_GAIN_INCREMENT * toolsSpecialLevel);
+                    break;
+                case economyLaw:
+                    economyTech = EconomyTech.values()[economyTech.ordinal() + 1];
+                    break;
+            }
+            nextTechEvent++;
+            nextTechDay = techTimeline.getDay(nextTechEvent);
+        }
+    }
+    public double getMilProduction() {
+        return totalMilProduction;
+    }
+    public int countCivFactories() {
+        return civFactories;
+    }
+    public int countMilFactories() {
+        return milFactories;
+    }
+    public String getParameterKey() {
+        //identifies everything about the starting position which changes the results of a simulation
+        int startingCivFactories = countCivFactories();
+        int startingMilFactories = countMilFactories();
+        //countries with the same totals can still have their factories and slots spread differently between states
+        long stateHash = 0;
+        for (State state : states) {
+            for (int i = 0; i < state.getCount(); i++) {
+                stateHash = stateHash * 31 + state.getLayoutHash();
+            }
+        }
+        return name + "/" + stability + "/" + warSupport + "/" + stateCount + "/" + startingCivFactories + "/"
+                + startingMilFactories + "/" + Long.toHexString(stateHash) + "/" + milFactoryStore.usesEfficiencyTable()
+                + (researchPlan == ResearchPlan.DEFAULT ? "" : "/" + researchPlan);
+    }
+    public int countStates() {
+        return stateCount;
+    }
+    public String getName() {
+        return name;
+    }
+    public double getStability() {
+        return stability;
+    }
+    public double getWarSupport() {
+        return warSupport;
+    }
+    public ResearchPlan getResearchPlan() {
+        return researchPlan;
+    }
+    public void setDayRecorder(DayRecorder dayRecorder) {
+        this.dayRecorder = dayRecorder;
+    }
+}
@@ -0,0 +1,199 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CancellationException;
+
+public class CutoffOptimiser {
+    //how many evenly spaced cutoff days are tried before narrowing down
+    private static final int COARSE_SAMPLES = 24;
+    //how many of the highest peaks in the coarse sweep are looked at more closely
+    private static final int REFINED_PEAKS = 3;
+    //how many days either side of the best day found are checked at the end, since production is not perfectly smooth
+    private static final int VERIFICATION_RADIUS = 3;
+    private static final double GOLDEN_RATIO = (1 + Math.sqrt(5)) / 2;
+
+    private final int duration;
+    //all-civilian runs saved at some of the days already visited, so each try only simulates from the nearest one
+    private final TreeMap<Integer, Country> checkpoints = new TreeMap<>();
+    private final HashMap<Integer, Country> finishedRuns = new HashMap<>();
+    //set when the result is no longer wanted, the search then stops before its next simulation
+    private volatile boolean cancelled;
+    //when set, no new simulation is started after the deadline and the best cutoff tried so far is the result
+    private boolean timeLimited;
+    private long deadline;
+
+    public CutoffOptimiser(Country country, int duration) {
+        this.duration = duration;
+        checkpoints.put(0, country.copy());
+    }
+    public Result findBestCutoff() {
+        long startTime = Metrics.start();
+        Result result;
+        try {
+            result = search();
+        } catch (OutOfTimeException e) {
+            result = getBestSoFar();
+        }
+        Metrics.record(Metrics.Phase.optimise, checkpoints.get(0).getName(), startTime);
+        return result;
+    }
+    public Result findBestCutoff(long deadline) {
+        //deadline is a System.nanoTime() value, at least one cutoff is always tried however early it is
+        timeLimited = true;
+        this.deadline = deadline;
+        return findBestCutoff();
+    }
+    private Result getBestSoFar() {
+        int bestCutoff = -1;
+        for (Map.Entry<Integer, Country> run : finishedRuns.entrySet()) {
+            if (bestCutoff < 0 || run.getValue().getMilProduction() > getMilProduction(bestCutoff)
+                    || run.getValue().getMilProduction() == getMilProduction(bestCutoff) && run.getKey() < bestCutoff) {
+                bestCutoff = run.getKey();
+            }
+        }
+        return new Result(bestCutoff, finishedRuns.get(bestCutoff), finishedRuns.size());
+    }
+    private Result search() {
+        if (duration <= 0) {
+            return new Result(0, checkpoints.get(0), 0);
+        }
+        //start with a coarse sweep over the whole range
+        int sampleCount = Math.min(COARSE_SAMPLES, duration);
+        int[] samples = new int[sampleCount];
+        for (int i = 0; i < sampleCount; i++) {
+            samples[i] = sampleCount == 1 ? 0 : (int) ((long) i * (duration - 1) / (sampleCount - 1));
+            getMilProduction(samples[i]);
+        }
+        //production usually has a peak either side of the big tech dates, so narrow down around the best few samples
+        // which are higher than their neighbours rather than only the very best one
+        ArrayList<Integer> peaks = new ArrayList<>();
+        for (int i = 0; i < sampleCount; i++) {
+            boolean higherThanPrevious = i == 0 || getMilProduction(samples[i]) >= getMilProduction(samples[i - 1]);
+            boolean higherThanNext = i == sampleCount - 1 || getMilProduction(samples[i]) >= getMilProduction(samples[i + 1]);
+            if (higherThanPrevious && higherThanNext) {
+                peaks.add(i);
+            }
+        }
+        peaks.sort((first, second) -> Double.compare(getMilProduction(samples[second]), getMilProduction(samples[first])));
+        int bestCutoff = samples[peaks.get(0)];
+        for (int peak : peaks.subList(0, Math.min(REFINED_PEAKS, peaks.size()))) {
+            int refinedCutoff = refinePeak(samples[Math.max(0, peak - 1)], samples[Math.min(sampleCount - 1, peak + 1)]);
+            if (getMilProduction(refinedCutoff) > getMilProduction(bestCutoff)) {
+                bestCutoff = refinedCutoff;
+            }
+        }
+        return new Result(bestCutoff, finishedRuns.get(bestCutoff), finishedRuns.size());
+    }
+    private int refinePeak(int low, int high) {
+        //golden section search between the samples either side of the peak
+        while (high - low > 3) {
+            int step = (int) Math.round((high - low) / GOLDEN_RATIO);
+            int lowerProbe = high - step;
+            int upperProbe = low + step;
+            if (getMilProduction(lowerProbe) < getMilProduction(upperProbe)) {
+                low = lowerProbe;
+            } else {
+                high = upperProbe;
+            }
+        }
+        //then check every day around where the search ended up in case it settled on a small local bump
+        int bestCutoff = low;
+        int verifyStart = Math.max(0, low - VERIFICATION_RADIUS);
+        int verifyEnd = Math.min(duration - 1, high + VERIFICATION_RADIUS);
+        for (int cutoffDay = verifyStart; cutoffDay <= verifyEnd; cutoffDay++) {
+            if (getMilProduction(cutoffDay) > getMilProduction(bestCutoff)) {
+                bestCutoff = cutoffDay;
+            }
+        }
+        return bestCutoff;
+    }
+    private double getMilProduction(int cutoffDay) {
+        return finishedRuns.computeIfAbsent(cutoffDay, this::simulate).getMilProduction();
+    }
+    public void cancel() {
+        cancelled = true;
+    }
+    private Country simulate(int cutoffDay) {
+        if (cancelled) {
+            throw new CancellationException("search for the best cutoff day was cancelled");
+        }
+        if (timeLimited && !finishedRuns.isEmpty() && System.nanoTime() >= deadline) {
+            throw new OutOfTimeException();
+        }
+        //bring the closest earlier all-civilian run up to the cutoff day and keep it for later tries
+        Map.Entry<Integer, Country> closest = checkpoints.floorEntry(cutoffDay);
+        Country checkpoint = closest.getValue();
+        if (closest.getKey() != cutoffDay) {
+            checkpoint = checkpoint.snapshot();
+            checkpoint.calculateResults(closest.getKey(), cutoffDay, cutoffDay);
+            checkpoints.put(cutoffDay, checkpoint);
+        }
+        Country instance = checkpoint.snapshot();
+        instance.calculateResults(cutoffDay, cutoffDay, duration);
+        return instance;
+    }
+
+    private static class OutOfTimeException extends RuntimeException {
+        //only used to unwind the search once the deadline has passed, so no stack trace is needed
+        OutOfTimeException() {
+            super(null, null, false, false);
+        }
+    }
+    public static class Result {
+        private final int bestCutoff;
+        private final double milProduction;
+        private final int civFactories;
+        private final int milFactories;
+        private final int simulationsRun;
+
+        private Result(int bestCutoff, Country finishedRun, int simulationsRun) {
+            this.bestCutoff = bestCutoff;
+            milProduction = finishedRun.getMilProduction();
+            civFactories = finishedRun.countCivFactories();
+            milFactories = finishedRun.countMilFactories();
+            this.simulationsRun = simulationsRun;
+        }
+        public int getBestCutoff() {
+            return bestCutoff;
+        }
+        public double getMilProduction() {
+            return milProduction;
+        }
+        public int getCivFactories() {
+            return civFactories;
+        }
+        public int getMilFactories() {
+            return milFactories;
+        }
+        public int getSimulationsRun() {
+            return simulationsRun;
+        }
+    }
+}
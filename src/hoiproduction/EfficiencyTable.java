@@ -0,0 +1,113 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.HashMap;
+
+public class EfficiencyTable {
+    private static final int INITIAL_LENGTH = 2048;
+    //one table for every combination of efficiency cap and gain bonus used so far, shared by every simulation
+    private static final HashMap<Key, EfficiencyTable> TABLES = new HashMap<>();
+
+    private final double efficiencyCap;
+    private final double efficiencyGainBonus;
+    //efficiency of a new factory after the given number of days, only ever replaced by a longer copy
+    private volatile double[] efficiencies;
+
+    private EfficiencyTable(double efficiencyCap, double efficiencyGainBonus) {
+        this.efficiencyCap = efficiencyCap;
+        this.efficiencyGainBonus = efficiencyGainBonus;
+        efficiencies = new double[] {MilFactory.getStartingEfficiency(false)};
+        extend(INITIAL_LENGTH);
+    }
+    public static EfficiencyTable getTable(double efficiencyCap, double efficiencyGainBonus) {
+        synchronized (TABLES) {
+            return TABLES.computeIfAbsent(new Key(efficiencyCap, efficiencyGainBonus), k -> new EfficiencyTable(efficiencyCap, efficiencyGainBonus));
+        }
+    }
+    public double[] getEfficiencies(int minimumLength) {
+        //the returned array must not be modified, it is shared by everything using this table
+        double[] table = efficiencies;
+        if (minimumLength > table.length) {
+            table = extend(minimumLength);
+        }
+        return table;
+    }
+    public int findAge(double efficiency) {
+        //find the age at which a new factory has the closest efficiency to the given one without going over, a factory
+        // that has just had its cap or gain bonus changed carries on from between that age and the next
+        double[] table = efficiencies;
+        while (table[table.length - 1] <= efficiency && table[table.length - 1] != efficiencyCap) {
+            table = extend(table.length * 2);
+        }
+        int low = 0;
+        int high = table.length - 1;
+        while (low < high) {
+            int middle = (low + high + 1) >>> 1;
+            if (table[middle] <= efficiency) {
+                low = middle;
+            } else {
+                high = middle - 1;
+            }
+        }
+        return low;
+    }
+    private synchronized double[] extend(int minimumLength) {
+        double[] oldTable = efficiencies;
+        if (oldTable.length >= minimumLength) {
+            return oldTable;
+        }
+        double[] newTable = new double[Math.max(minimumLength, oldTable.length * 2)];
+        System.arraycopy(oldTable, 0, newTable, 0, oldTable.length);
+        //fill in the rest using exactly the same calculation as a factory would, so the table matches it perfectly
+        for (int i = oldTable.length; i < newTable.length; i++) {
+            newTable[i] = MilFactory.getNextEfficiency(newTable[i - 1], efficiencyCap, efficiencyGainBonus);
+        }
+        efficiencies = newTable;
+        return newTable;
+    }
+
+    private static final class Key {
+        private final double efficiencyCap;
+        private final double efficiencyGainBonus;
+
+        private Key(double efficiencyCap, double efficiencyGainBonus) {
+            this.efficiencyCap = efficiencyCap;
+            this.efficiencyGainBonus = efficiencyGainBonus;
+        }
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return Double.compare(efficiencyCap, key.efficiencyCap) == 0 && Double.compare(efficiencyGainBonus, key.efficiencyGainBonus) == 0;
+        }
+        @Override
+        public int hashCode() {
+            return 31 * Double.hashCode(efficiencyCap) + Double.hashCode(efficiencyGainBonus);
+        }
+    }
+}
@@ -0,0 +1,595 @@
+package hoiproduction;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class GameDataLoader {
+    //locations for state data
+    private static final SectionPath STATE_OWNER_PATH = new SectionPath("state/history/owner");
+    private static final SectionPath STATE_INFRASTRUCTURE_PATH = new SectionPath("state/history/buildings/infrastructure");
+    private static final SectionPath STATE_INDUSTRIAL_LEVEL_PATH = new SectionPath("state/state_category");
+    private static final SectionPath STATE_BUILDING_SLOTS_PATH = new SectionPath("state/add_extra_state_shared_building_slots");
+    private static final SectionPath STATE_DOCKYARDS_PATH = new SectionPath("state/history/buildings/dockyard");
+    private static final SectionPath STATE_CIV_FACTORIES_PATH = new SectionPath("state/history/buildings/industrial_complex");
+    private static final SectionPath STATE_MIL_FACTORIES_PATH = new SectionPath("state/history/buildings/arms_factory");
+    //locations for country data
+    private static final SectionPath FILE_NAME_PATH = new SectionPath("fileName");
+    private static final SectionPath COUNTRY_STABILITY_PATH = new SectionPath("set_stability");
+    private static final SectionPath COUNTRY_WAR_SUPPORT_PATH = new SectionPath("set_war_support");
+    //where the data taken from the game files is saved so it doesn't have to be parsed every time
+    private static final String SNAPSHOT_FILE = "hoiProductionData.cache";
+    private static final int SNAPSHOT_MAGIC = 0x484F4950; //"HOIP"
+    private static final int SNAPSHOT_VERSION = 1;
+
+    public static HashMap<String, Country> getGameData(String historyFilesPath) {
+        HashMap<String, Country> toReturn = new HashMap<>();
+        CountryIndex countryIndex = getCountryIndex(historyFilesPath);
+        for (String countryCode : countryIndex.getCountryCodes()) {
+            toReturn.put(countryCode, countryIndex.getCountry(countryCode));
+        }
+        return toReturn;
+    }
+    public static CountryIndex getCountryIndex(String historyFilesPath) {
+        return getCountryIndex(historyFilesPath, false);
+    }
+    public static CountryIndex getCountryIndex(String historyFilesPath, boolean lazy) {
+        //when lazy, the files are only skimmed to find which country owns each state, and a country's files are only
+        // properly loaded the first time it is asked for
+        return getCountryIndex(historyFilesPath, lazy, new File(SNAPSHOT_FILE));
+    }
+    static CountryIndex getCountryIndex(String historyFilesPath, boolean lazy, File snapshotFile) {
+        long startTime = Metrics.start();
+        CountryIndex countryIndex = loadCountryIndex(historyFilesPath, lazy, snapshotFile);
+        Metrics.record(Metrics.Phase.load, null, startTime);
+        return countryIndex;
+    }
+    private static CountryIndex loadCountryIndex(String historyFilesPath, boolean lazy, File snapshotFile) {
+        File gameStatesDir = new File(historyFilesPath + "states/");
+        File[] stateFiles = gameStatesDir.listFiles();
+        File gameCountriesDir = new File(historyFilesPath + "countries/");
+        File[] countryFiles = gameCountriesDir.listFiles();
+        //use the snapshot from last time if none of the files have changed since it was made
+        long fingerprint = getFingerprint(historyFilesPath, stateFiles, countryFiles);
+        CountryIndex countryIndex = readSnapshot(snapshotFile, fingerprint);
+        if (countryIndex != null) {
+            System.out.println("States and countries loaded from snapshot");
+            return countryIndex;
+        }
+        if (lazy) {
+            countryIndex = indexFiles(stateFiles, countryFiles);
+            if (stateFiles != null && countryFiles != null) {
+                //nothing is saved until saveSnapshot() is called, so only a caller with time to spare pays for loading the rest
+                countryIndex.snapshotFile = snapshotFile;
+                countryIndex.fingerprint = fingerprint;
+            }
+            return countryIndex;
+        }
+        countryIndex = parseFiles(stateFiles, countryFiles);
+        if (stateFiles != null && countryFiles != null) {
+            writeSnapshot(snapshotFile, fingerprint, countryIndex);
+        }
+        return countryIndex;
+    }
+    public static CountryIndex parseCountryIndex(String historyFilesPath) {
+        //always parses every file, ignoring and not updating the snapshot
+        File[] stateFiles = new File(historyFilesPath + "states/").listFiles();
+        File[] countryFiles = new File(historyFilesPath + "countries/").listFiles();
+        return parseFiles(stateFiles, countryFiles);
+    }
+    private static CountryIndex parseFiles(File[] stateFiles, File[] countryFiles) {
+        FileSection[] stateRoots = new FileSection[0];
+        if (stateFiles != null) {
+            stateRoots = processGameData(stateFiles);
+            System.out.println("States loaded");
+        } else {
+            System.out.println("States could not be loaded");
+        }
+        FileSection[] countryRoots = new FileSection[0];
+        if (countryFiles != null) {
+            countryRoots = processGameData(countryFiles);
+            System.out.println("Countries loaded");
+        } else {
+            System.out.println("Countries could not be loaded");
+        }
+        CountryIndex countryIndex = new CountryIndex();
+        for (FileSection countryRaw : countryRoots) {
+            countryIndex.addCountry(countryFromRaw(countryRaw));
+        }
+        for (FileSection stateRaw : stateRoots) {
+            countryIndex.addState(stateRaw.getFirstValueByPath(STATE_OWNER_PATH), stateFromRaw(stateRaw));
+        }
+        return countryIndex;
+    }
+    private static CountryIndex indexFiles(File[] stateFiles, File[] countryFiles) {
+        CountryIndex countryIndex = new CountryIndex();
+        if (countryFiles != null) {
+            File[] sortedCountryFiles = countryFiles.clone();
+            Arrays.sort(sortedCountryFiles, Comparator.comparing(File::getName));
+            for (File countryFile : sortedCountryFiles) {
+                //first three characters of filename for country files are the country code
+                countryIndex.addUnloadedCountry(countryFile.getName().substring(0, 3), countryFile);
+            }
+        }
+        if (stateFiles != null) {
+            File[] sortedStateFiles = stateFiles.clone();
+            Arrays.sort(sortedStateFiles, Comparator.comparing(File::getName));
+            String[] owners = Arrays.stream(sortedStateFiles).parallel().map(GameDataLoader::findOwner).toArray(String[]::new);
+            for (int i = 0; i < sortedStateFiles.length; i++) {
+                countryIndex.addUnloadedState(owners[i], sortedStateFiles[i]);
+            }
+        }
+        System.out.println("States and countries indexed");
+        return countryIndex;
+    }
+    private static String findOwner(File stateFile) {
+        //look for state/history/owner without building any sections, giving an empty string if there isn't one
+        try (FileChannel channel = FileChannel.open(stateFile.toPath(), StandardOpenOption.READ)) {
+            ScriptTokenizer tokenizer = new ScriptTokenizer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            String[] ownerPath = STATE_OWNER_PATH.sectionNames;
+            int depth = 0;
+            int matchedDepth = 0; //how many of the sections the tokenizer is in match the start of the owner path
+            boolean keyMatches = false;
+            boolean afterOperator = false;
+            ScriptTokenizer.TokenType token;
+            while ((token = tokenizer.next()) != ScriptTokenizer.TokenType.end) {
+                switch (token) {
+                    case word:
+                        if (afterOperator) {
+                            if (keyMatches && depth == ownerPath.length - 1) {
+                                return tokenizer.getWord();
+                            }
+                            afterOperator = false;
+                            keyMatches = false;
+                        } else {
+                            keyMatches = matchedDepth == depth && depth < ownerPath.length && tokenizer.isWord(ownerPath[depth]);
+                        }
+                        break;
+                    case operator:
+                        afterOperator = true;
+                        break;
+                    case open:
+                        if (afterOperator && keyMatches) {
+                            matchedDepth = depth + 1;
+                        }
+                        depth++;
+                        afterOperator = false;
+                        keyMatches = false;
+                        break;
+                    case close:
+                        depth--;
+                        if (depth < 0) {
+                            return "";
+                        }
+                        matchedDepth = Math.min(matchedDepth, depth);
+                        afterOperator = false;
+                        keyMatches = false;
+                        break;
+                }
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading data file");
+            System.exit(1);
+        }
+        return "";
+    }
+    static long getFingerprint(String historyFilesPath, File[] stateFiles, File[] countryFiles) {
+        //combines the name, size and modification time of every file, which is much cheaper than reading them
+        long fingerprint = new File(historyFilesPath).getAbsolutePath().hashCode();
+        for (File[] files : new File[][] {stateFiles, countryFiles}) {
+            if (files == null) {
+                fingerprint = fingerprint * 31 - 1;
+                continue;
+            }
+            File[] sortedFiles = files.clone();
+            Arrays.sort(sortedFiles, Comparator.comparing(File::getName));
+            for (File file : sortedFiles) {
+                fingerprint = fingerprint * 31 + file.getName().hashCode();
+                fingerprint = fingerprint * 31 + file.length();
+                fingerprint = fingerprint * 31 + file.lastModified();
+            }
+        }
+        return fingerprint;
+    }
+    static void writeSnapshot(File snapshotFile, long fingerprint, CountryIndex countryIndex) {
+        //written to a temporary file next to the snapshot and then renamed over it, so a program killed part way through
+        // or another copy of the program saving at the same time never leaves a half written snapshot behind
+        File temporaryFile;
+        try {
+            temporaryFile = File.createTempFile(snapshotFile.getName(), ".tmp", snapshotFile.getAbsoluteFile().getParentFile());
+            //in case the program exits while it is still being written
+            temporaryFile.deleteOnExit();
+        } catch (IOException e) {
+            System.out.println("Could not save game data snapshot");
+            return;
+        }
+        try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+            output.writeInt(SNAPSHOT_MAGIC);
+            output.writeInt(SNAPSHOT_VERSION);
+            output.writeLong(fingerprint);
+            output.writeInt(countryIndex.countries.size());
+            for (CountryData country : countryIndex.countries.values()) {
+                writeString(output, country.countryCode);
+                output.writeDouble(country.stability);
+                output.writeDouble(country.warSupport);
+            }
+            output.writeInt(countryIndex.statesByOwner.size());
+            for (Map.Entry<String, ArrayList<StateData>> ownedStates : countryIndex.statesByOwner.entrySet()) {
+                writeString(output, ownedStates.getKey());
+                output.writeInt(ownedStates.getValue().size());
+                for (StateData state : ownedStates.getValue()) {
+                    output.writeByte(state.industrialLevel.ordinal());
+                    output.writeInt(state.infrastructure);
+                    output.writeInt(state.bonusBuildingSlots);
+                    output.writeInt(state.dockyards);
+                    output.writeInt(state.civFactories);
+                    output.writeInt(state.milFactories);
+                }
+            }
+        } catch (IOException e) {
+            //not being able to save the snapshot only means the files will be parsed again next time
+            System.out.println("Could not save game data snapshot");
+            temporaryFile.delete();
+            return;
+        }
+        try {
+            Files.move(temporaryFile.toPath(), snapshotFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            System.out.println("Could not save game data snapshot");
+            temporaryFile.delete();
+        }
+    }
+    static CountryIndex readSnapshot(File snapshotFile, long fingerprint) {
+        if (!snapshotFile.isFile()) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotFile.toPath(), StandardOpenOption.READ)) {
+            ByteBuffer input = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (input.getInt() != SNAPSHOT_MAGIC || input.getInt() != SNAPSHOT_VERSION || input.getLong() != fingerprint) {
+                return null;
+            }
+            CountryIndex countryIndex = new CountryIndex();
+            int countryCount = input.getInt();
+            for (int i = 0; i < countryCount; i++) {
+                countryIndex.addCountry(new CountryData(readString(input), input.getDouble(), input.getDouble()));
+            }
+            State.IndustrialLevel[] industrialLevels = State.IndustrialLevel.values();
+            int ownerCount = input.getInt();
+            for (int i = 0; i < ownerCount; i++) {
+                String owner = readString(input);
+                int stateCount = input.getInt();
+                for (int j = 0; j < stateCount; j++) {
+                    State.IndustrialLevel industrialLevel = industrialLevels[input.get()];
+                    int infrastructure = input.getInt();
+                    int bonusBuildingSlots = input.getInt();
+                    int dockyards = input.getInt();
+                    int civFactories = input.getInt();
+                    int milFactories = input.getInt();
+                    countryIndex.addState(owner, new StateData(infrastructure, industrialLevel, bonusBuildingSlots, dockyards, civFactories, milFactories));
+                }
+            }
+            return countryIndex;
+        } catch (IOException | RuntimeException e) {
+            //a damaged or out of date snapshot is treated the same as a missing one
+            return null;
+        }
+    }
+    private static void writeString(DataOutputStream output, String toWrite) throws IOException {
+        byte[] bytes = toWrite.getBytes(StandardCharsets.UTF_8);
+        output.writeShort(bytes.length);
+        output.write(bytes);
+    }
+    private static String readString(ByteBuffer input) {
+        byte[] bytes = new byte[input.getShort()];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    private static CountryData countryFromRaw(FileSection rawCountry) {
+        //first three characters of filename for country files are the country code
+        String countryCode = rawCountry.getFirstValueByPath(FILE_NAME_PATH).substring(0, 3);
+        double stability = parseDoubleWithDefault(rawCountry.getFirstValueByPath(COUNTRY_STABILITY_PATH));
+        double warSupport = parseDoubleWithDefault(rawCountry.getFirstValueByPath(COUNTRY_WAR_SUPPORT_PATH));
+        return new CountryData(countryCode, stability, warSupport);
+    }
+    private static StateData stateFromRaw(FileSection rawState) {
+        int infrastructure = parseIntWithDefault(rawState.getFirstValueByPath(STATE_INFRASTRUCTURE_PATH));
+        State.IndustrialLevel industrialLevel = State.IndustrialLevel.valueOf(rawState.getFirstValueByPath(STATE_INDUSTRIAL_LEVEL_PATH));
+        int bonusBuildingSlots = parseIntWithDefault(rawState.getFirstValueByPath(STATE_BUILDING_SLOTS_PATH));
+        int dockyards = parseIntWithDefault(rawState.getFirstValueByPath(STATE_DOCKYARDS_PATH));
+        int civFactories = parseIntWithDefault(rawState.getFirstValueByPath(STATE_CIV_FACTORIES_PATH));
+        int milFactories = parseIntWithDefault(rawState.getFirstValueByPath(STATE_MIL_FACTORIES_PATH));
+        return new StateData(infrastructure, industrialLevel, bonusBuildingSlots, dockyards, civFactories, milFactories);
+    }
+    private static int parseIntWithDefault(String toParse) {
+        int toReturn;
+        try {
+            toReturn = Integer.parseInt(toParse);
+        } catch (NumberFormatException e) {
+            toReturn = 0;
+        }
+        return toReturn;
+    }
+    private static double parseDoubleWithDefault(String toParse) {
+        double toReturn;
+        try {
+            toReturn = Double.parseDouble(toParse);
+        } catch (NumberFormatException e) {
+            toReturn = 0.5;
+        }
+        return toReturn;
+    }
+    public static class CountryIndex {
+        //everything needed to build each country, found by country code rather than searching through every file
+        private final HashMap<String, CountryData> countries = new HashMap<>();
+        private final HashMap<String, ArrayList<StateData>> statesByOwner = new HashMap<>();
+        //files for countries which have not been loaded yet, when the index is lazy
+        private final HashMap<String, File> unloadedCountryFiles = new HashMap<>();
+        private final HashMap<String, ArrayList<File>> unloadedStateFiles = new HashMap<>();
+        //where a lazy index should be saved once everything has been loaded, null if there is nothing to save
+        private File snapshotFile;
+        private long fingerprint;
+
+        private CountryIndex() {}
+        private void addUnloadedCountry(String countryCode, File countryFile) {
+            unloadedCountryFiles.putIfAbsent(countryCode, countryFile);
+        }
+        private void addUnloadedState(String owner, File stateFile) {
+            if (unloadedCountryFiles.containsKey(owner)) {
+                unloadedStateFiles.computeIfAbsent(owner, k -> new ArrayList<>()).add(stateFile);
+            }
+        }
+        private void loadCountry(String countryCode) {
+            ArrayList<File> stateFiles = unloadedStateFiles.remove(countryCode);
+            if (stateFiles == null) {
+                return;
+            }
+            long startTime = Metrics.start();
+            addCountry(countryFromRaw(processGameData(unloadedCountryFiles.remove(countryCode))));
+            for (FileSection stateRaw : processGameData(stateFiles.toArray(new File[0]))) {
+                addState(stateRaw.getFirstValueByPath(STATE_OWNER_PATH), stateFromRaw(stateRaw));
+            }
+            Metrics.record(Metrics.Phase.load, countryCode, startTime);
+        }
+        private void loadAll() {
+            //one country at a time, so a country asked for by something else doesn't have to wait for all of them
+            ArrayList<String> countryCodes;
+            synchronized (this) {
+                countryCodes = new ArrayList<>(unloadedStateFiles.keySet());
+            }
+            for (String countryCode : countryCodes) {
+                synchronized (this) {
+                    loadCountry(countryCode);
+                }
+            }
+        }
+        public void saveSnapshot() {
+            //loads every country which hasn't been yet and saves the snapshot a lazy index skipped, so the next start can
+            // use it too, this takes a while so it should be run in the background once the program is otherwise idle
+            File toSave;
+            synchronized (this) {
+                toSave = snapshotFile;
+                snapshotFile = null;
+            }
+            if (toSave == null) {
+                return;
+            }
+            loadAll();
+            synchronized (this) {
+                writeSnapshot(toSave, fingerprint, this);
+            }
+        }
+        private void addCountry(CountryData country) {
+            //if there are two files for the same country code the first one is used
+            countries.putIfAbsent(country.countryCode, country);
+        }
+        private void addState(String owner, StateData state) {
+            //states owned by a country which has no file can't be simulated
+            if (countries.containsKey(owner)) {
+                statesByOwner.computeIfAbsent(owner, k -> new ArrayList<>()).add(state);
+            }
+        }
+        public synchronized Set<String> getCountryCodes() {
+            //only countries which own at least one state
+            HashSet<String> toReturn = new HashSet<>(statesByOwner.keySet());
+            toReturn.addAll(unloadedStateFiles.keySet());
+            return Collections.unmodifiableSet(toReturn);
+        }
+        public synchronized State[] getStates(String countryCode) {
+            //new states every time, since simulating a country changes its states
+            loadCountry(countryCode);
+            ArrayList<StateData> ownedStates = statesByOwner.getOrDefault(countryCode, new ArrayList<>());
+            State[] toReturn = new State[ownedStates.size()];
+            for (int i = 0; i < toReturn.length; i++) {
+                toReturn[i] = ownedStates.get(i).toState();
+            }
+            return toReturn;
+        }
+        public synchronized Country getCountry(String countryCode) {
+            loadCountry(countryCode);
+            if (!statesByOwner.containsKey(countryCode)) {
+                return null;
+            }
+            CountryData country = countries.get(countryCode);
+            return new Country(getStates(countryCode), country.stability, country.warSupport, countryCode);
+        }
+    }
+    private static class CountryData {
+        private final String countryCode;
+        private final double stability;
+        private final double warSupport;
+
+        private CountryData(String countryCode, double stability, double warSupport) {
+            this.countryCode = countryCode;
+            this.stability = stability;
+            this.warSupport = warSupport;
+        }
+    }
+    private static class StateData {
+        private final int infrastructure;
+        private final State.IndustrialLevel industrialLevel;
+        private final int bonusBuildingSlots;
+        private final int dockyards;
+        private final int civFactories;
+        private final int milFactories;
+
+        private StateData(int infrastructure, State.IndustrialLevel industrialLevel, int bonusBuildingSlots, int dockyards, int civFactories, int milFactories) {
+            this.infrastructure = infrastructure;
+            this.industrialLevel = industrialLevel;
+            this.bonusBuildingSlots = bonusBuildingSlots;
+            this.dockyards = dockyards;
+            this.civFactories = civFactories;
+            this.milFactories = milFactories;
+        }
+        private State toState() {
+            return new State(infrastructure, industrialLevel, bonusBuildingSlots, dockyards, civFactories, milFactories);
+        }
+    }
+    static class SectionPath {
+        //a path split up in advance so looking it up doesn't need to split the string every time
+        private final String[] sectionNames;
+
+        SectionPath(String path) {
+            sectionNames = path.split("/");
+        }
+    }
+    static class FileSection {
+        private final String name;
+        private final HashMap<String, FileSection> subSections = new HashMap<>();
+        private final ArrayList<String> values = new ArrayList<>();
+
+        private FileSection(String name) {
+            this.name = name;
+        }
+        private void addSubSection(FileSection newSection) {
+            subSections.put(newSection.getName(), newSection);
+        }
+        private void addValue(String value) {
+            values.add(value);
+        }
+        private String getName() {
+            return name;
+        }
+        List<String> getValues() {
+            return Collections.unmodifiableList(values);
+        }
+        String getFirstValueByPath(SectionPath path) {
+            //gives an empty string if the path doesn't exist or has no values
+            FileSection currentSection = this;
+            for (String sectionName : path.sectionNames) {
+                currentSection = currentSection.getSubSection(sectionName);
+                if (currentSection == null) {
+                    return "";
+                }
+            }
+            if (currentSection.values.isEmpty()) {
+                return "";
+            }
+            return currentSection.values.get(0);
+        }
+        FileSection getSubSection(String name) {
+            return subSections.get(name);
+        }
+        private FileSection getOrAddSubSection(String name) {
+            //keys which appear more than once in a section all share the same subsection
+            return subSections.computeIfAbsent(name, FileSection::new);
+        }
+    }
+    private static FileSection[] processGameData(File[] dataFiles) {
+        //every file is independent so they are parsed in parallel, sorting them first means the results always come
+        // back in the same order whatever order the file system lists them in
+        File[] sortedFiles = dataFiles.clone();
+        Arrays.sort(sortedFiles, Comparator.comparing(File::getName));
+        return Arrays.stream(sortedFiles).parallel().map(GameDataLoader::processGameData).toArray(FileSection[]::new);
+    }
+    static FileSection processGameData(File dataFile) {
+        FileSection rootSection = new FileSection("root");
+        FileSection fileName = new FileSection("fileName");
+        fileName.addValue(dataFile.getName());
+        rootSection.addSubSection(fileName);
+        try (FileChannel channel = FileChannel.open(dataFile.toPath(), StandardOpenOption.READ)) {
+            ScriptTokenizer tokenizer = new ScriptTokenizer(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+            //the sections which contain the current one, anonymous blocks push the current section again
+            ArrayList<FileSection> enclosingSections = new ArrayList<>();
+            FileSection currentSection = rootSection;
+            //a word is only known to be a key once the operator after it has been seen
+            String pendingWord = null;
+            String pendingKey = null;
+            ScriptTokenizer.TokenType token;
+            while ((token = tokenizer.next()) != ScriptTokenizer.TokenType.end) {
+                switch (token) {
+                    case word:
+                        if (pendingKey != null) {
+                            currentSection.getOrAddSubSection(pendingKey).addValue(tokenizer.getWord());
+                            pendingKey = null;
+                        } else {
+                            if (pendingWord != null) {
+                                currentSection.addValue(pendingWord);
+                            }
+                            pendingWord = tokenizer.getWord();
+                        }
+                        break;
+                    case operator:
+                        if (pendingWord != null) {
+                            pendingKey = pendingWord;
+                            pendingWord = null;
+                        }
+                        break;
+                    case open:
+                        if (pendingWord != null) {
+                            currentSection.addValue(pendingWord);
+                            pendingWord = null;
+                        }
+                        enclosingSections.add(currentSection);
+                        if (pendingKey != null) {
+                            currentSection = currentSection.getOrAddSubSection(pendingKey);
+                            pendingKey = null;
+                        }
+                        break;
+                    case close:
+                        if (pendingWord != null) {
+                            currentSection.addValue(pendingWord);
+                            pendingWord = null;
+                        }
+                        if (pendingKey != null) {
+                            currentSection.getOrAddSubSection(pendingKey);
+                            pendingKey = null;
+                        }
+                        //replicate behaviour in the actual game where an extra closing bracket in the file for the british
+                        // antilles causes some data not to be loaded
+                        if (enclosingSections.isEmpty()) {
+                            return rootSection;
+                        }
+                        currentSection = enclosingSections.remove(enclosingSections.size() - 1);
+                        break;
+                }
+            }
+            if (pendingWord != null) {
+                currentSection.addValue(pendingWord);
+            }
+            if (pendingKey != null) {
+                currentSection.getOrAddSubSection(pendingKey);
+            }
+        } catch (IOException e) {
+            System.out.println("Error reading data file");
+            System.exit(1);
+        }
+        return rootSection;
+    }
+}
@@ -0,0 +1,103 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+public class Histogram {
+    //counts non-negative values in buckets which get wider as they go up, with 2^subBucketBits buckets for every
+    // doubling, so any number of values takes the same memory and a percentile is always within 1 / 2^subBucketBits of
+    // the real value, values can be added from many threads at once
+    private final int subBucketBits;
+    private final int subBuckets;
+    private final AtomicLongArray buckets;
+    private final LongAdder count = new LongAdder();
+    private final LongAdder total = new LongAdder();
+    private final AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private final AtomicLong max = new AtomicLong();
+
+    public Histogram(int subBucketBits) {
+        this.subBucketBits = subBucketBits;
+        subBuckets = 1 << subBucketBits;
+        buckets = new AtomicLongArray(64 * subBuckets);
+    }
+    public void record(long value) {
+        value = Math.max(0, value);
+        buckets.incrementAndGet(getBucket(value));
+        count.increment();
+        total.add(value);
+        if (value < min.get()) {
+            min.accumulateAndGet(value, Math::min);
+        }
+        if (value > max.get()) {
+            max.accumulateAndGet(value, Math::max);
+        }
+    }
+    private int getBucket(long value) {
+        if (value < subBuckets) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int subBucket = (int) (value >>> (exponent - subBucketBits)) & (subBuckets - 1);
+        return (exponent - subBucketBits + 1) * subBuckets + subBucket;
+    }
+    private long getBucketLimit(int bucket) {
+        //the largest value which goes in the bucket
+        if (bucket < subBuckets) {
+            return bucket;
+        }
+        int exponent = bucket / subBuckets + subBucketBits - 1;
+        long subBucket = bucket % subBuckets;
+        return ((subBuckets + subBucket + 1) << (exponent - subBucketBits)) - 1;
+    }
+    public long getPercentile(double percentile) {
+        long target = Math.max(1, (long) Math.ceil(percentile * count.sum()));
+        long seen = 0;
+        for (int i = 0; i < buckets.length(); i++) {
+            seen += buckets.get(i);
+            if (seen >= target) {
+                return Math.max(getMin(), Math.min(getBucketLimit(i), max.get()));
+            }
+        }
+        return max.get();
+    }
+    public long getCount() {
+        return count.sum();
+    }
+    public long getTotal() {
+        return total.sum();
+    }
+    public double getMean() {
+        return (double) getTotal() / Math.max(1, getCount());
+    }
+    public long getMin() {
+        return getCount() == 0 ? 0 : min.get();
+    }
+    public long getMax() {
+        return max.get();
+    }
+}
@@ -0,0 +1,439 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import org.knowm.xchart.XChartPanel;
+import org.knowm.xchart.XYChart;
+import org.knowm.xchart.XYSeries;
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+public class Main {
+    //constants for visual output
+    private static final int WINDOW_WIDTH = 1600;
+    private static final int WINDOW_HEIGHT = 900;
+    //about one point per pixel across a graph, however long the sweep is
+    private static final int GRAPH_POINTS = WINDOW_WIDTH / 2;
+
+    //game file locations
+    private static final String GAME_HISTORY_PATH = "hoiGameData/history/";
+
+    //the date the game starts at
+    private static final String GAME_START_DATE = "01-01-1936";
+    //some constants for the simulation which runs by default
+    private static final String DEFAULT_COUNTRY_CODE = "SOV";
+    private static final String DEFAULT_END_DATE = "22-06-1941";
+
+    //every simulation runs here rather than on the swing thread
+    private static final ForkJoinPool SIMULATION_POOL = SimulationProcessor.getSharedPool();
+    //finished sweeps, so asking for the same country and date again is instant
+    private static final SweepCache SWEEP_CACHE = new SweepCache();
+
+    //the three graphs
+    private final ZoomableChart productionGraph;
+    private final ZoomableChart civFactoryGraph;
+    private final ZoomableChart milFactoryGraph;
+    //the range of years each graph has been zoomed in to, graphs which aren't zoomed in aren't here
+    private final HashMap<XYChart, double[]> zoomRanges = new HashMap<>();
+
+    //shows the result of searching for the best day to switch
+    private final JLabel optimisationLabel;
+
+    //the window
+    private final JFrame window;
+
+    //the sweep currently being shown, replaced (and cancelled) whenever a new one is started
+    private SweepResults currentSweep;
+    private String currentCountryName;
+    private final AtomicBoolean graphUpdatePending = new AtomicBoolean();
+    //the search currently being shown, replaced (and cancelled) whenever a new one is started
+    private CutoffOptimiser currentOptimisation;
+    private final GameDataLoader.CountryIndex countries;
+    //the rest of the game files are only loaded and saved for next time once the first sweep has finished
+    private boolean snapshotSaveStarted;
+    //whether the label under the buttons is showing a bad country or date rather than a search result
+    private boolean showingInputProblem;
+
+
+    public Main() {
+        //only the country being looked at needs to be loaded, so the window can appear as soon as possible
+        countries = GameDataLoader.getCountryIndex(GAME_HISTORY_PATH, true);
+        //create a window and set some basic properties
+        window = new JFrame();
+        window.setTitle("Hearts of Iron IV Production Calculator");
+        window.setPreferredSize(new Dimension(WINDOW_WIDTH, WINDOW_HEIGHT));
+        window.setResizable(false);
+        window.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+
+        //add the UI elements and specify their sizes & positions using GridBagLayout
+        Container pane = window.getContentPane();
+        GridBagConstraints constraints = new GridBagConstraints();
+        pane.setLayout(new GridBagLayout());
+        constraints.anchor = GridBagConstraints.FIRST_LINE_START;
+        constraints.fill = GridBagConstraints.HORIZONTAL;
+        constraints.weightx = 0.5;
+        constraints.gridx = 0;
+        constraints.gridy = 0;
+        pane.add(new JLabel("Country Code/Name"), constraints);
+        constraints.gridx = 1;
+        constraints.gridy = 0;
+        JTextField countryNameField = new JTextField(DEFAULT_COUNTRY_CODE);
+        pane.add(countryNameField, constraints);
+        constraints.gridx = 0;
+        constraints.gridy = 1;
+        pane.add(new JLabel("Target Date"), constraints);
+        constraints.gridx = 1;
+        constraints.gridy = 1;
+        JTextField endDateField = new JTextField(DEFAULT_END_DATE);
+        pane.add(endDateField, constraints);
+        constraints.gridx = 0;
+        constraints.gridy = 2;
+        constraints.gridwidth = 2;
+        JButton goButton = new JButton("GO");
+        goButton.addActionListener(actionEvent -> doSimulation(endDateField.getText(), countryNameField.getText().trim()));
+        pane.add(goButton, constraints);
+        constraints.gridy = 3;
+        JButton optimiseButton = new JButton("Find best day");
+        optimiseButton.addActionListener(actionEvent -> doOptimisation(endDateField.getText(), countryNameField.getText().trim()));
+        pane.add(optimiseButton, constraints);
+        constraints.gridy = 4;
+        optimisationLabel = new JLabel(" ");
+        pane.add(optimisationLabel, constraints);
+
+        //get all of the graphs ready
+        productionGraph = setGraphVisuals(new ZoomableChart(WINDOW_WIDTH / 2, WINDOW_HEIGHT / 3));
+        productionGraph.setXAxisTitle("Time switched from civilian to military factories (years after game start)");
+        productionGraph.setYAxisTitle("Total military production");
+        productionGraph.addSeries("Total military production", new double[] {0}, new double[] {0});
+        XChartPanel<XYChart> productionGraphPanel = new XChartPanel<>(productionGraph);
+        productionGraphPanel.removeMouseListener(productionGraphPanel.getMouseListeners()[0]); //remove the right-click menu
+        watchZoom(productionGraphPanel, productionGraph, "Total military production");
+        constraints.gridx = 2;
+        constraints.gridy = 0;
+        constraints.gridwidth = 1;
+        constraints.gridheight = 5;
+        pane.add(productionGraphPanel, constraints);
+
+        civFactoryGraph = setGraphVisuals(new ZoomableChart(WINDOW_WIDTH / 2, WINDOW_HEIGHT / 3));
+        civFactoryGraph.setXAxisTitle("Time switched from civilian to military factories (years after game start)");
+        civFactoryGraph.setYAxisTitle("Civilian factories");
+        civFactoryGraph.addSeries("Civilian factories", new double[] {0}, new double[] {0});
+        XChartPanel<XYChart> civGraphPanel = new XChartPanel<>(civFactoryGraph);
+        civGraphPanel.removeMouseListener(civGraphPanel.getMouseListeners()[0]); //remove the right-click menu
+        watchZoom(civGraphPanel, civFactoryGraph, "Civilian factories");
+        constraints.gridy = 5;
+        pane.add(civGraphPanel, constraints);
+
+        milFactoryGraph = setGraphVisuals(new ZoomableChart(WINDOW_WIDTH / 2, WINDOW_HEIGHT / 3));
+        milFactoryGraph.setXAxisTitle("Time switched from civilian to military factories (years after game start)");
+        milFactoryGraph.setYAxisTitle("Military factories");
+        milFactoryGraph.addSeries("Military factories", new double[] {0}, new double[] {0});
+        XChartPanel<XYChart> milGraphPanel = new XChartPanel<>(milFactoryGraph);
+        milGraphPanel.removeMouseListener(milGraphPanel.getMouseListeners()[0]); //remove the right-click menu
+        watchZoom(milGraphPanel, milFactoryGraph, "Military factories");
+        constraints.gridy = 10;
+        pane.add(milGraphPanel, constraints);
+
+        //show the window once everything has been added
+        window.pack();
+        window.toFront();
+        window.setVisible(true);
+        //do a simulation after everything has been set up
+        doSimulation(DEFAULT_END_DATE, DEFAULT_COUNTRY_CODE);
+    }
+    private void doSimulation(String rawDate, String countryCode) {
+        Country country = countries.getCountry(countryCode);
+        int duration = checkRequest(rawDate, countryCode, country);
+        if (duration <= 0) {
+            return;
+        }
+        SweepResults results = SWEEP_CACHE.getSweep(country, duration);
+        //stop working on the previous sweep, its results are not going to be shown anymore
+        if (currentSweep != null && currentSweep != results) {
+            currentSweep.cancel();
+        }
+        if (results == null) {
+            results = new SweepResults(duration, this::scheduleGraphUpdate);
+            SWEEP_CACHE.addSweep(country, results);
+            SIMULATION_POOL.execute(new SimulationProcessor(country.copy(), duration, results));
+        }
+        currentSweep = results;
+        currentCountryName = country.getName();
+        updateGraphs();
+        civFactoryGraph.setTitle("Total Civilian Factories on " + rawDate + " (after " + duration + " days) for " + country.getName());
+        milFactoryGraph.setTitle("Total Military Factories on " + rawDate + " (after " + duration + " days) for " + country.getName());
+        productionGraph.setTitle("Total military production from " + GAME_START_DATE + " to " + rawDate + " (" + duration + " days) for " + country.getName());
+        window.repaint();
+    }
+    private int checkRequest(String rawDate, String countryCode, Country country) {
+        //the number of days to simulate, or 0 after showing what is wrong with the country or date instead
+        String problem = null;
+        int duration = 0;
+        if (country == null) {
+            problem = "There is no country with the code " + countryCode;
+        } else {
+            try {
+                duration = getDuration(rawDate);
+                if (duration <= 0) {
+                    problem = rawDate + " is not after the game starts on " + GAME_START_DATE;
+                }
+            } catch (ParseException e) {
+                problem = rawDate + " is not a date, it should look like " + DEFAULT_END_DATE;
+            }
+        }
+        if (problem != null) {
+            optimisationLabel.setText(problem);
+            showingInputProblem = true;
+            return 0;
+        }
+        if (showingInputProblem) {
+            optimisationLabel.setText(" ");
+            showingInputProblem = false;
+        }
+        return duration;
+    }
+    private void scheduleGraphUpdate(SweepResults results) {
+        //called from the simulation threads, only queue an update if there isn't one waiting already
+        if (graphUpdatePending.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(() -> {
+                graphUpdatePending.set(false);
+                updateGraphs();
+            });
+        }
+    }
+    private void updateGraphs() {
+        //always show the newest sweep, even if the update was asked for by one which has since been replaced
+        long startTime = Metrics.start();
+        SweepResults results = currentSweep;
+        int[] finishedCutoffs = results.getFinishedCutoffs();
+        if (finishedCutoffs.length == 0) {
+            return;
+        }
+        double[] productionData = new double[finishedCutoffs.length];
+        double[] civFactoryData = new double[finishedCutoffs.length];
+        double[] milFactoryData = new double[finishedCutoffs.length];
+        double[] dateData = new double[finishedCutoffs.length];
+        int bestIndex = 0;
+        for (int i = 0; i < finishedCutoffs.length; i++) {
+            productionData[i] = results.getMilProduction(finishedCutoffs[i]);
+            civFactoryData[i] = results.getCivFactories(finishedCutoffs[i]);
+            milFactoryData[i] = results.getMilFactories(finishedCutoffs[i]);
+            dateData[i] = ((double) finishedCutoffs[i]) / 365;
+            if (productionData[i] > productionData[bestIndex]) {
+                bestIndex = i;
+            }
+        }
+        //only a graph's width worth of points are drawn, always including the best day so the peak is shown exactly
+        setGraphData(productionGraph, "Total military production", dateData, productionData, bestIndex);
+        setGraphData(civFactoryGraph, "Civilian factories", dateData, civFactoryData, bestIndex);
+        setGraphData(milFactoryGraph, "Military factories", dateData, milFactoryData, bestIndex);
+        window.repaint();
+        Metrics.record(Metrics.Phase.graphUpdate, currentCountryName, startTime);
+        if (!snapshotSaveStarted && results.isComplete()) {
+            snapshotSaveStarted = true;
+            Thread snapshotWriter = new Thread(countries::saveSnapshot, "snapshot writer");
+            snapshotWriter.setDaemon(true);
+            snapshotWriter.setPriority(Thread.MIN_PRIORITY);
+            snapshotWriter.start();
+        }
+    }
+    private void setGraphData(XYChart graph, String seriesName, double[] dateData, double[] data, int bestIndex) {
+        int[] points = ChartDownsampler.selectPoints(dateData, data, 0, dateData.length, GRAPH_POINTS, bestIndex);
+        double[] zoomRange = zoomRanges.get(graph);
+        if (zoomRange != null) {
+            //add a full set of points from inside the zoomed range, so zooming in shows more detail
+            int from = 0;
+            while (from < dateData.length && dateData[from] < zoomRange[0]) {
+                from++;
+            }
+            int to = from;
+            while (to < dateData.length && dateData[to] <= zoomRange[1]) {
+                to++;
+            }
+            points = ChartDownsampler.merge(points, ChartDownsampler.selectPoints(dateData, data, from, to, GRAPH_POINTS, bestIndex));
+        }
+        double[] shownDates = new double[points.length];
+        double[] shownData = new double[points.length];
+        for (int i = 0; i < points.length; i++) {
+            shownDates[i] = dateData[points[i]];
+            shownData[i] = data[points[i]];
+        }
+        graph.updateXYSeries(seriesName, shownDates, shownData, null);
+        //replacing the points undoes the chart's zoom, so put it back
+        if (zoomRange != null) {
+            graph.getSeriesMap().get(seriesName).filterXByValue(zoomRange[0], zoomRange[1]);
+        }
+    }
+    private void watchZoom(XChartPanel<XYChart> graphPanel, ZoomableChart graph, String seriesName) {
+        //the chart zooms by hiding the points outside of the dragged range, so this runs after it to notice when the
+        // range changes and draw more points inside it, the range is taken from the drag itself because the first and
+        // last points left shown can be a long way inside it when only a few points are drawn
+        MouseAdapter zoomWatcher = new MouseAdapter() {
+            private int dragStart = -1;
+            private int dragEnd = -1;
+            private double[] shownBeforeDrag;
+
+            @Override
+            public void mousePressed(MouseEvent e) {
+                dragStart = e.getX();
+                dragEnd = -1;
+                shownBeforeDrag = graph.getSeriesMap().get(seriesName).getXData();
+            }
+            @Override
+            public void mouseDragged(MouseEvent e) {
+                dragEnd = e.getX();
+            }
+            @Override
+            public void mouseReleased(MouseEvent e) {
+                //the chart only zooms in if the drag covered enough points, otherwise whatever was shown before stays
+                double[] zoomRange = zoomRanges.get(graph);
+                if (dragStart != -1 && dragEnd != -1 && !Arrays.equals(shownBeforeDrag, graph.getSeriesMap().get(seriesName).getXData())) {
+                    //the axis hasn't been redrawn since the drag started, so it still converts the same way the chart's did
+                    double start = graph.getXValue(dragStart);
+                    double end = graph.getXValue(dragEnd);
+                    zoomRange = new double[] {Math.min(start, end), Math.max(start, end)};
+                }
+                dragStart = -1;
+                dragEnd = -1;
+                shownBeforeDrag = null;
+                zoomChanged(graph, seriesName, zoomRange);
+            }
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                zoomChanged(graph, seriesName, zoomRanges.get(graph));
+            }
+        };
+        graphPanel.addMouseListener(zoomWatcher);
+        graphPanel.addMouseMotionListener(zoomWatcher);
+    }
+    private void zoomChanged(XYChart graph, String seriesName, double[] zoomRange) {
+        //showing every point again means the zoom was reset
+        if (graph.getSeriesMap().get(seriesName).isAllXData()) {
+            zoomRange = null;
+        }
+        if (!Arrays.equals(zoomRange, zoomRanges.get(graph))) {
+            if (zoomRange == null) {
+                zoomRanges.remove(graph);
+                graph.getStyler().setXAxisMin(0d);
+            } else {
+                zoomRanges.put(graph, zoomRange);
+                //let the axis start at the zoomed range instead of at the start of the game
+                graph.getStyler().setXAxisMin(null);
+            }
+            updateGraphs();
+        }
+    }
+    private void doOptimisation(String rawDate, String countryCode) {
+        Country country = countries.getCountry(countryCode);
+        int duration = checkRequest(rawDate, countryCode, country);
+        if (duration <= 0) {
+            return;
+        }
+        //stop the previous search, its result is not going to be shown anymore
+        if (currentOptimisation != null) {
+            currentOptimisation.cancel();
+        }
+        CutoffOptimiser optimisation = new CutoffOptimiser(country.copy(), duration);
+        currentOptimisation = optimisation;
+        optimisationLabel.setText("Searching...");
+        CompletableFuture.supplyAsync(optimisation::findBestCutoff, SIMULATION_POOL)
+                .whenComplete((result, error) -> SwingUtilities.invokeLater(() -> {
+                    //ignore the outcome if another search has been started since
+                    if (optimisation != currentOptimisation) {
+                        return;
+                    }
+                    if (error != null) {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                        optimisationLabel.setText("Search failed: " + cause);
+                    } else {
+                        optimisationLabel.setText(String.format("Best day to switch: %d (%.2f years), %.0f production, %d civs, %d mils",
+                                result.getBestCutoff(), result.getBestCutoff() / 365.0, result.getMilProduction(), result.getCivFactories(), result.getMilFactories()));
+                    }
+                }));
+    }
+    public static int getDuration(String rawDate) throws ParseException {
+        //number of days between the start of the game and the given date
+        SimpleDateFormat dateFormat = new SimpleDateFormat("dd-MM-yyyy");
+        Date gameStart = dateFormat.parse(GAME_START_DATE);
+        Date endDate = dateFormat.parse(rawDate);
+        long durationMilli = endDate.getTime() - gameStart.getTime();
+        return (int) TimeUnit.DAYS.convert(durationMilli, TimeUnit.MILLISECONDS);
+    }
+    private ZoomableChart setGraphVisuals(ZoomableChart graph) {
+        //set all of the desired visuals for the graphs in one place
+        graph.getStyler().setLegendVisible(false);
+        graph.getStyler().setMarkerSize(4);
+        graph.getStyler().setXAxisMin(0d);
+        graph.getStyler().setYAxisMin(0d);
+        //dragging across a graph zooms in to that range
+        graph.getStyler().setZoomEnabled(true);
+        return graph;
+    }
+    public static void main(String[] args) {
+        //run without the window if asked to
+        if (args.length > 0 && args[0].equals("--batch")) {
+            BatchRunner.run(Arrays.copyOfRange(args, 1, args.length), GAME_HISTORY_PATH, DEFAULT_END_DATE);
+        } else if (args.length > 0 && args[0].equals("--trajectory")) {
+            //print one run from a file written by a batch run with --trajectories, the last day if no cutoff is given
+            String usage = "Usage: --trajectory file [cutoff day], where the cutoff day is from 0 up to the number of days in the file";
+            if (args.length < 2 || args.length > 3) {
+                System.out.println(usage);
+                return;
+            }
+            try {
+                TrajectoryReader reader = new TrajectoryReader(new File(args[1]));
+                reader.printRun(args.length > 2 ? Integer.parseInt(args[2]) : reader.getDuration(), System.out);
+            } catch (IOException e) {
+                System.out.println(args[1] + " could not be read: " + e.getMessage());
+            } catch (NumberFormatException | IndexOutOfBoundsException e) {
+                System.out.println(args[1] + " has no run for " + (args.length > 2 ? args[2] : "the last day"));
+                System.out.println(usage);
+            }
+        } else {
+            SwingUtilities.invokeLater(Main::new);
+        }
+    }
+    private static class ZoomableChart extends XYChart {
+        //the chart's zoom turns the dragged screen positions into values with its x axis, which only a subclass can reach
+        private ZoomableChart(int width, int height) {
+            super(width, height);
+        }
+        private double getXValue(int screenX) {
+            return axisPair.getXAxis().getChartValue(screenX);
+        }
+    }
+}
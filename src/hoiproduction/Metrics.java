@@ -0,0 +1,119 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+public final class Metrics {
+    //timings and counters for the slow parts of the program, each measurement is a pair of nanoTime calls and a few
+    // uncontended atomic adds so they are left on unless -Dhoiproduction.metrics=false is given
+    private static final boolean ENABLED = !"false".equals(System.getProperty("hoiproduction.metrics"));
+    private static final String ALL_COUNTRIES = "*";
+    private static final long STARTED = System.nanoTime();
+    //8 buckets for every doubling, so a percentile is always within about 12% of the real time
+    private static final int TIMING_SUB_BUCKET_BITS = 3;
+
+    private static final EnumMap<Phase, ConcurrentHashMap<String, Histogram>> TIMINGS = new EnumMap<>(Phase.class);
+    private static final ConcurrentHashMap<String, LongAdder> SIMULATED_DAYS = new ConcurrentHashMap<>();
+
+    public enum Phase {
+        load,        //parsing or reading the game files
+        copy,        //making a fresh copy of a country to simulate
+        sweep,       //a whole sweep over every cutoff day
+        block,       //one fork/join leaf task's share of a sweep
+        optimise,    //searching for the best cutoff without a full sweep
+        strategy,    //improving on the best cutoff with a multi-phase build strategy
+        scenarios,   //searching for the best cutoff in many randomly changed versions of a country
+        graphUpdate  //redrawing the graphs with new results
+    }
+    static {
+        for (Phase phase : Phase.values()) {
+            TIMINGS.put(phase, new ConcurrentHashMap<>());
+        }
+    }
+
+    private Metrics() {}
+
+    public static long start() {
+        return ENABLED ? System.nanoTime() : 0;
+    }
+    public static void record(Phase phase, String countryName, long startTime) {
+        //countryName can be null for things which aren't about one country, the time is always added to the total too
+        if (!ENABLED) {
+            return;
+        }
+        long elapsed = System.nanoTime() - startTime;
+        ConcurrentHashMap<String, Histogram> phaseTimings = TIMINGS.get(phase);
+        phaseTimings.computeIfAbsent(ALL_COUNTRIES, k -> new Histogram(TIMING_SUB_BUCKET_BITS)).record(elapsed);
+        if (countryName != null) {
+            phaseTimings.computeIfAbsent(countryName, k -> new Histogram(TIMING_SUB_BUCKET_BITS)).record(elapsed);
+        }
+    }
+    public static LongAdder getSimulatedDaysCounter(String countryName) {
+        //looked up once per country and kept, so counting days in the simulation loop doesn't need a map lookup
+        return ENABLED ? SIMULATED_DAYS.computeIfAbsent(countryName, k -> new LongAdder()) : null;
+    }
+    public static void report(PrintStream out) {
+        if (!ENABLED) {
+            out.println("Metrics are turned off");
+            return;
+        }
+        out.println(String.format("%-12s %-8s %8s %12s %10s %10s %10s %10s", "phase", "country", "count", "total ms", "mean ms",
+                "p50 ms", "p95 ms", "max ms"));
+        for (Phase phase : Phase.values()) {
+            for (Map.Entry<String, Histogram> entry : new TreeMap<>(TIMINGS.get(phase)).entrySet()) {
+                Histogram histogram = entry.getValue();
+                long count = histogram.getCount();
+                out.println(String.format("%-12s %-8s %8d %12.1f %10.3f %10.3f %10.3f %10.3f", phase, entry.getKey(), count,
+                        histogram.getTotal() / 1e6, histogram.getTotal() / 1e6 / Math.max(1, count), histogram.getPercentile(0.5) / 1e6,
+                        histogram.getPercentile(0.95) / 1e6, histogram.getMax() / 1e6));
+            }
+        }
+        //days per second for each country only counts the time spent in that country's sweeps and searches, the total
+        // is over the whole time the program has been running so it shows how well the threads were kept busy
+        long totalDays = 0;
+        for (Map.Entry<String, LongAdder> entry : new TreeMap<>(SIMULATED_DAYS).entrySet()) {
+            long days = entry.getValue().sum();
+            totalDays += days;
+            //every scenario runs its own cutoff search, so when there are scenarios the optimise timings are already
+            // inside them (and overlap across threads) and the scenario time is counted instead
+            long scenarioTime = getTotal(Phase.scenarios, entry.getKey());
+            long simulationTime = getTotal(Phase.sweep, entry.getKey()) + getTotal(Phase.strategy, entry.getKey())
+                    + (scenarioTime > 0 ? scenarioTime : getTotal(Phase.optimise, entry.getKey()));
+            out.println(String.format("%s simulated %d days, %.0f days/s", entry.getKey(), days, days / Math.max(1e-9, simulationTime / 1e9)));
+        }
+        double elapsedSeconds = (System.nanoTime() - STARTED) / 1e9;
+        out.println(String.format("Simulated %d days in %.1fs, %.0f days/s", totalDays, elapsedSeconds, totalDays / Math.max(1e-9, elapsedSeconds)));
+    }
+    private static long getTotal(Phase phase, String countryName) {
+        Histogram histogram = TIMINGS.get(phase).get(countryName);
+        return histogram == null ? 0 : histogram.getTotal();
+    }
+}
@@ -22,38 +22,41 @@ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
 
-public class MilFactory {
+package hoiproduction;
+
+public final class MilFactory {
     //constants
     private final static double PRODUCTION_PER_MIL_FACTORY = 4.5;
     private final static double MINIMUM_PRODUCTION_EFFICIENCY = 0.1;
     private final static double BASE_PRODUCTION_EFFICIENCY_CAP = 0.5;
     private final static double BASE_PRODUCTION_EFFICIENCY_GAIN_MULTIPLIER = 0.001;
 
-    //working variables
-    private double productionEfficiencyCap = BASE_PRODUCTION_EFFICIENCY_CAP;
-    private double productionEfficiency;
-    private double efficiencyGainBonus = 1;
+    //the factories themselves are stored in MilFactoryStore, this just holds the rules they follow
+    private MilFactory() {}
 
-    public MilFactory(boolean gameStart) {
+    public static double getStartingEfficiency(boolean gameStart) {
+        //factories which exist at the start of the game are already at the cap
         if (gameStart) {
-            productionEfficiency = productionEfficiencyCap;
+            return BASE_PRODUCTION_EFFICIENCY_CAP;
         } else {
-            productionEfficiency = MINIMUM_PRODUCTION_EFFICIENCY;
+            return MINIMUM_PRODUCTION_EFFICIENCY;
         }
     }
-    public double doProduction() {
+    public static double getEfficiencyCap(double capBonus) {
+        return BASE_PRODUCTION_EFFICIENCY_CAP + capBonus;
+    }
+    public static double getEfficiencyGainBonus(double gainBonus) {
+        return 1 + gainBonus;
+    }
+    public static double getNextEfficiency(double efficiency, double efficiencyCap, double efficiencyGainBonus) {
         //calculate a new production efficiency if needed
-        if (productionEfficiency != productionEfficiencyCap) {
-            double productionEfficiencyGain = Math.pow(productionEfficiencyCap, 2) / productionEfficiency;
-            productionEfficiency += productionEfficiencyGain * BASE_PRODUCTION_EFFICIENCY_GAIN_MULTIPLIER * efficiencyGainBonus;
+        if (efficiency != efficiencyCap) {
+            double productionEfficiencyGain = efficiencyCap * efficiencyCap / efficiency;
+            efficiency += productionEfficiencyGain * BASE_PRODUCTION_EFFICIENCY_GAIN_MULTIPLIER * efficiencyGainBonus;
         }
-        return PRODUCTION_PER_MIL_FACTORY * productionEfficiency;
-    }
-    public void setProductionEfficiencyCapBonus(double newBonus) {
-        productionEfficiencyCap = BASE_PRODUCTION_EFFICIENCY_CAP + newBonus;
-        productionEfficiency = Math.min(productionEfficiency, productionEfficiencyCap);
+        return efficiency;
     }
-    public void setProductionEfficiencyGainBonus(double newBonus) {
-        efficiencyGainBonus = 1 + newBonus;
+    public static double getProduction(double efficiency) {
+        return PRODUCTION_PER_MIL_FACTORY * efficiency;
     }
 }
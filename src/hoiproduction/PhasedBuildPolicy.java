@@ -0,0 +1,110 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+public class PhasedBuildPolicy implements BuildPolicy {
+    //splits the game into phases, each giving a set share of the day's construction to mils, civs are built with the
+    // first part of the construction and mils with the rest
+    //the first phase always starts on day 0, a phase carries on until the next one starts
+    private final int[] phaseStarts;
+    private final double[] militaryShares;
+
+    public PhasedBuildPolicy(int[] phaseStarts, double[] militaryShares) {
+        //phaseStarts must be in order, phases which don't change the share or which are empty are merged into the one before
+        ArrayList<Integer> starts = new ArrayList<>();
+        ArrayList<Double> shares = new ArrayList<>();
+        for (int i = 0; i < phaseStarts.length; i++) {
+            int start = i == 0 ? 0 : phaseStarts[i];
+            double share = Math.max(0, Math.min(1, militaryShares[i]));
+            if (!starts.isEmpty() && start <= starts.get(starts.size() - 1)) {
+                //a phase starting on the same day as the one before replaces it
+                starts.remove(starts.size() - 1);
+                shares.remove(shares.size() - 1);
+            }
+            if (shares.isEmpty() || shares.get(shares.size() - 1) != share) {
+                starts.add(starts.isEmpty() ? 0 : start);
+                shares.add(share);
+            }
+        }
+        this.phaseStarts = starts.stream().mapToInt(Integer::intValue).toArray();
+        this.militaryShares = shares.stream().mapToDouble(Double::doubleValue).toArray();
+    }
+    public static PhasedBuildPolicy cutoff(int cutoffDay) {
+        return new PhasedBuildPolicy(new int[] {0, cutoffDay}, new double[] {0, 1});
+    }
+
+    @Override
+    public boolean buildsMilitary(int currentDay, int stateIndex, double constructionShare) {
+        return constructionShare >= 1 - getMilitaryShare(currentDay);
+    }
+    public double getMilitaryShare(int day) {
+        int index = Arrays.binarySearch(phaseStarts, day);
+        return militaryShares[index >= 0 ? index : -index - 2];
+    }
+    public int getFirstDifference(PhasedBuildPolicy other) {
+        //the first day the two policies build differently, runs using them are identical up to that day
+        int day = 0;
+        int index = 0;
+        int otherIndex = 0;
+        while (true) {
+            if (militaryShares[index] != other.militaryShares[otherIndex]) {
+                return day;
+            }
+            int nextStart = index + 1 < phaseStarts.length ? phaseStarts[index + 1] : Integer.MAX_VALUE;
+            int otherNextStart = otherIndex + 1 < other.phaseStarts.length ? other.phaseStarts[otherIndex + 1] : Integer.MAX_VALUE;
+            day = Math.min(nextStart, otherNextStart);
+            if (day == Integer.MAX_VALUE) {
+                return day;
+            }
+            if (nextStart == day) {
+                index++;
+            }
+            if (otherNextStart == day) {
+                otherIndex++;
+            }
+        }
+    }
+    public int getPhaseCount() {
+        return phaseStarts.length;
+    }
+    public int getPhaseStart(int phase) {
+        return phaseStarts[phase];
+    }
+    public double getMilitaryShareOfPhase(int phase) {
+        return militaryShares[phase];
+    }
+    @Override
+    public String toString() {
+        //day:share for every phase, eg 0:0.00 412:1.00 for switching to mils on day 412
+        StringBuilder toReturn = new StringBuilder();
+        for (int i = 0; i < phaseStarts.length; i++) {
+            toReturn.append(i == 0 ? "" : " ").append(phaseStarts[i]).append(':').append(String.format("%.2f", militaryShares[i]));
+        }
+        return toReturn.toString();
+    }
+}
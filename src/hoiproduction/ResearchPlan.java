@@ -0,0 +1,84 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Random;
+
+public class ResearchPlan {
+    //when each level of each tech is started and how long it takes to research, in days after 1936
+    public static final ResearchPlan DEFAULT = new ResearchPlan();
+
+    private final EnumMap<TechTimeline.Event, int[]> startDays = new EnumMap<>(TechTimeline.Event.class);
+    private final EnumMap<TechTimeline.Event, Integer> researchTimes = new EnumMap<>(TechTimeline.Event.class);
+
+    private ResearchPlan() {
+        startDays.put(TechTimeline.Event.construction, new int[] {0, 365, 1095, 1825, 2555});
+        startDays.put(TechTimeline.Event.industry, new int[] {170, 365, 1095, 1825, 2555});
+        startDays.put(TechTimeline.Event.tools, new int[] {0, 365, 1095, 1825, 2555});
+        startDays.put(TechTimeline.Event.toolsSpecial, new int[] {2555});
+        researchTimes.put(TechTimeline.Event.construction, 170);
+        researchTimes.put(TechTimeline.Event.industry, 170);
+        researchTimes.put(TechTimeline.Event.tools, 127);
+        researchTimes.put(TechTimeline.Event.toolsSpecial, 127);
+    }
+    private ResearchPlan(ResearchPlan toCopy) {
+        for (TechTimeline.Event tech : toCopy.startDays.keySet()) {
+            startDays.put(tech, toCopy.startDays.get(tech).clone());
+            researchTimes.put(tech, toCopy.researchTimes.get(tech));
+        }
+    }
+    public ResearchPlan vary(Random random, double researchTimeVariation, int startDayVariation) {
+        //a plan like this one with every research time scaled by up to researchTimeVariation either way, and every tech
+        // started up to startDayVariation days earlier or later, keeping the levels of each tech in order
+        ResearchPlan toReturn = new ResearchPlan(this);
+        for (TechTimeline.Event tech : toReturn.startDays.keySet()) {
+            double scale = 1 + researchTimeVariation * (2 * random.nextDouble() - 1);
+            toReturn.researchTimes.put(tech, Math.max(1, (int) Math.round(researchTimes.get(tech) * scale)));
+            int[] days = toReturn.startDays.get(tech);
+            for (int i = 0; i < days.length; i++) {
+                days[i] = Math.max(0, days[i] + random.nextInt(2 * startDayVariation + 1) - startDayVariation);
+            }
+            Arrays.sort(days);
+        }
+        return toReturn;
+    }
+    public int[] getCompletionDays(TechTimeline.Event tech) {
+        int[] days = startDays.getOrDefault(tech, new int[0]).clone();
+        for (int i = 0; i < days.length; i++) {
+            days[i] += researchTimes.get(tech);
+        }
+        return days;
+    }
+    @Override
+    public String toString() {
+        StringBuilder toReturn = new StringBuilder();
+        for (TechTimeline.Event tech : startDays.keySet()) {
+            toReturn.append(tech).append(Arrays.toString(startDays.get(tech))).append('+').append(researchTimes.get(tech));
+        }
+        return toReturn.toString();
+    }
+}
@@ -0,0 +1,122 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.Random;
+import java.util.concurrent.RecursiveAction;
+
+public class ScenarioSweep extends RecursiveAction {
+    //how far each scenario's inputs can be from the country's own, either way
+    private static final double STABILITY_VARIATION = 0.1;
+    private static final double WAR_SUPPORT_VARIATION = 0.1;
+    private static final double RESEARCH_TIME_VARIATION = 0.2;
+    private static final int RESEARCH_START_VARIATION = 90;
+    //scenarios run one after another in each task once there are this few left to split up
+    private static final int SPLIT_THRESHOLD = 4;
+    //production is only needed to within about 1%, the best cutoff day is exact below 128 days and within 1% above
+    private static final int SUB_BUCKET_BITS = 7;
+
+    //runs the cutoff search for many randomly changed versions of a country, only keeping the spread of the results
+    private final Country country;
+    private final int duration;
+    private final long seed;
+    private final int firstScenario;
+    private final int scenarioCount;
+    private final Summary summary;
+    //only the task which starts the sweep times the whole thing
+    private final boolean root;
+
+    public ScenarioSweep(Country country, int duration, int scenarioCount, long seed) {
+        this(country, duration, seed, 0, scenarioCount, new Summary(), true);
+    }
+    private ScenarioSweep(Country country, int duration, long seed, int firstScenario, int scenarioCount, Summary summary, boolean root) {
+        this.country = country;
+        this.duration = duration;
+        this.seed = seed;
+        this.firstScenario = firstScenario;
+        this.scenarioCount = scenarioCount;
+        this.summary = summary;
+        this.root = root;
+    }
+    public Summary getSummary() {
+        return summary;
+    }
+
+    @Override
+    protected void compute() {
+        long startTime = Metrics.start();
+        if (scenarioCount <= SPLIT_THRESHOLD) {
+            for (int i = firstScenario; i < firstScenario + scenarioCount; i++) {
+                runScenario(i);
+            }
+        } else {
+            int splitPoint = scenarioCount / 2;
+            invokeAll(new ScenarioSweep(country, duration, seed, firstScenario, splitPoint, summary, false),
+                    new ScenarioSweep(country, duration, seed, firstScenario + splitPoint, scenarioCount - splitPoint, summary, false));
+        }
+        if (root) {
+            Metrics.record(Metrics.Phase.scenarios, country.getName(), startTime);
+        }
+    }
+    private void runScenario(int scenario) {
+        //every scenario has its own random numbers, so the results don't depend on which thread ran what
+        Random random = new Random(seed * 1000003 + scenario);
+        double stability = clamp(country.getStability() + STABILITY_VARIATION * (2 * random.nextDouble() - 1));
+        double warSupport = clamp(country.getWarSupport() + WAR_SUPPORT_VARIATION * (2 * random.nextDouble() - 1));
+        ResearchPlan researchPlan = country.getResearchPlan().vary(random, RESEARCH_TIME_VARIATION, RESEARCH_START_VARIATION);
+        CutoffOptimiser.Result result = new CutoffOptimiser(country.copy(stability, warSupport, researchPlan), duration).findBestCutoff();
+        summary.record(result);
+    }
+    private static double clamp(double value) {
+        return Math.max(0, Math.min(1, value));
+    }
+
+    public static class Summary {
+        //streaming totals rather than every result, so any number of scenarios takes the same memory
+        private final Histogram bestCutoffs = new Histogram(SUB_BUCKET_BITS);
+        private final Histogram milProductions = new Histogram(SUB_BUCKET_BITS);
+        private final Histogram civFactories = new Histogram(SUB_BUCKET_BITS);
+        private final Histogram milFactories = new Histogram(SUB_BUCKET_BITS);
+
+        private void record(CutoffOptimiser.Result result) {
+            bestCutoffs.record(result.getBestCutoff());
+            milProductions.record(Math.round(result.getMilProduction()));
+            civFactories.record(result.getCivFactories());
+            milFactories.record(result.getMilFactories());
+        }
+        public Histogram getBestCutoffs() {
+            return bestCutoffs;
+        }
+        public Histogram getMilProductions() {
+            return milProductions;
+        }
+        public Histogram getCivFactories() {
+            return civFactories;
+        }
+        public Histogram getMilFactories() {
+            return milFactories;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+public class ScriptTokenizer {
+    public enum TokenType {
+        word,     //a key or value, with any quotes around it removed
+        operator, //=, <, >, <=, >= or !=
+        open,     //{
+        close,    //}
+        end
+    }
+
+    private final ByteBuffer buffer;
+    private int position;
+    private final int limit;
+    //bytes of the current word, reused for every word in the file
+    private byte[] wordBytes = new byte[64];
+    private int wordLength;
+
+    public ScriptTokenizer(ByteBuffer buffer) {
+        this.buffer = buffer;
+        position = buffer.position();
+        limit = buffer.limit();
+        //skip the BOM which is present in some files (although it shouldn't be)
+        if (limit - position >= 3 && buffer.get(position) == (byte) 0xEF && buffer.get(position + 1) == (byte) 0xBB && buffer.get(position + 2) == (byte) 0xBF) {
+            position += 3;
+        }
+    }
+    public TokenType next() {
+        //skip whitespace and comments
+        while (position < limit) {
+            byte current = buffer.get(position);
+            if (current == '#') {
+                while (position < limit && buffer.get(position) != '\n') {
+                    position++;
+                }
+            } else if (isWhitespace(current)) {
+                position++;
+            } else {
+                break;
+            }
+        }
+        if (position >= limit) {
+            return TokenType.end;
+        }
+        byte current = buffer.get(position);
+        switch (current) {
+            case '{':
+                position++;
+                return TokenType.open;
+            case '}':
+                position++;
+                return TokenType.close;
+            case '=':
+            case '<':
+            case '>':
+            case '!':
+                position++;
+                if (position < limit && buffer.get(position) == '=') {
+                    position++;
+                }
+                return TokenType.operator;
+            case '"':
+                readQuotedWord();
+                return TokenType.word;
+            default:
+                readWord();
+                return TokenType.word;
+        }
+    }
+    public String getWord() {
+        return new String(wordBytes, 0, wordLength, StandardCharsets.UTF_8);
+    }
+    public boolean isWord(String toCompare) {
+        //check the current word without making a string out of it, only works for plain ascii
+        if (wordLength != toCompare.length()) {
+            return false;
+        }
+        for (int i = 0; i < wordLength; i++) {
+            if (wordBytes[i] != toCompare.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    private void readWord() {
+        wordLength = 0;
+        while (position < limit) {
+            byte current = buffer.get(position);
+            if (isWhitespace(current) || isSpecial(current)) {
+                break;
+            }
+            addToWord(current);
+            position++;
+        }
+    }
+    private void readQuotedWord() {
+        //everything up to the closing quote, including whitespace and anything which would otherwise be special
+        wordLength = 0;
+        position++;
+        while (position < limit && buffer.get(position) != '"') {
+            addToWord(buffer.get(position));
+            position++;
+        }
+        position++;
+    }
+    private void addToWord(byte toAdd) {
+        if (wordLength == wordBytes.length) {
+            wordBytes = Arrays.copyOf(wordBytes, wordLength * 2);
+        }
+        wordBytes[wordLength++] = toAdd;
+    }
+    private static boolean isWhitespace(byte toCheck) {
+        return toCheck == ' ' || toCheck == '\t' || toCheck == '\n' || toCheck == '\r';
+    }
+    private static boolean isSpecial(byte toCheck) {
+        return toCheck == '{' || toCheck == '}' || toCheck == '=' || toCheck == '<' || toCheck == '>' || toCheck == '!' || toCheck == '#' || toCheck == '"';
+    }
+}
@@ -0,0 +1,132 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+public class SimulationProcessor extends RecursiveAction {
+    //every sweep and search shares one pool sized to the machine, its threads don't keep the program open
+    private static final ForkJoinPool SHARED_POOL = new ForkJoinPool(Runtime.getRuntime().availableProcessors());
+    //a sweep is cut into about this many blocks per thread so threads which finish early can take work from the rest
+    static final int BLOCKS_PER_THREAD = 8;
+    //blocks cheaper than this (in days simulated times states) cost more to hand out than they save, roughly a few ms
+    static final long MINIMUM_BLOCK_COST = 250000;
+
+    //every run is identical to the all-civilian run until its cutoff day, so each task is given a country which has
+    // only ever built civs and continues it up to the first cutoff it is responsible for instead of starting at day 0
+    private final Country checkpoint;
+    private final int checkpointDay;
+    private final int startPoint;
+    private final int length;
+    private final int duration;
+    private final SweepResults results;
+    //set by the task which started the sweep once it knows which pool it is running in
+    private long blockCost;
+    private final boolean root;
+
+    public SimulationProcessor(Country initialCountry, int duration, SweepResults results) {
+        this(initialCountry, 0, 0, duration, duration, results, 0);
+    }
+    private SimulationProcessor(Country checkpoint, int checkpointDay, int start, int length, int duration, SweepResults results, long blockCost) {
+        this.checkpoint = checkpoint;
+        this.checkpointDay = checkpointDay;
+        startPoint = start;
+        this.length = length;
+        this.duration = duration;
+        this.results = results;
+        this.blockCost = blockCost;
+        root = blockCost == 0;
+    }
+    public static ForkJoinPool getSharedPool() {
+        return SHARED_POOL;
+    }
+    static long getBlockCost(double totalCost, double parallelism) {
+        //how much work each block should be given so every thread gets several blocks, without making them tiny
+        return (long) Math.max(MINIMUM_BLOCK_COST, totalCost / (parallelism * BLOCKS_PER_THREAD));
+    }
+
+    @Override
+    protected void compute() {
+        if (results.isCancelled()) {
+            return;
+        }
+        long startTime = Metrics.start();
+        if (root) {
+            ForkJoinPool pool = getPool();
+            blockCost = getBlockCost(getCost(startPoint, length), pool == null ? 1 : pool.getParallelism());
+        }
+        //bring the shared all-civilian prefix up to the first cutoff day of this task, snapshots don't keep the recorder
+        checkpoint.setDayRecorder(results.getAllCivilianDayRecorder());
+        checkpoint.calculateResults(checkpointDay, startPoint, startPoint);
+        if (length == 1 || getCost(startPoint, length) <= blockCost) {
+            processDirectly();
+        } else {
+            int splitPoint = getSplitPoint();
+            //the second half gets its own copy of the checkpoint which it advances itself, in parallel with the first half
+            invokeAll(new SimulationProcessor(checkpoint, startPoint, startPoint, splitPoint, duration, results, blockCost),
+                    new SimulationProcessor(checkpoint.snapshot(), startPoint, startPoint + splitPoint, length - splitPoint, duration, results, blockCost));
+        }
+        if (root) {
+            Metrics.record(Metrics.Phase.sweep, checkpoint.getName(), startTime);
+        }
+    }
+    private double getCost(int start, int count) {
+        //each cutoff runs from its own day to the end and moves the checkpoint on by a day, so early cutoffs are much more
+        // expensive than late ones, and every day costs about the same for each state
+        double days = (double) count * (duration - start) - (double) count * (count - 1) / 2 + count;
+        return days * (checkpoint.countStates() + 1);
+    }
+    private int getSplitPoint() {
+        //split where both halves cost the same, counting the days the second half has to catch its checkpoint up by
+        int low = 1;
+        int high = length - 1;
+        while (low < high) {
+            int middle = (low + high) / 2;
+            double firstHalf = getCost(startPoint, middle);
+            double secondHalf = getCost(startPoint + middle, length - middle) + (double) middle * (checkpoint.countStates() + 1);
+            if (firstHalf < secondHalf) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+    private void processDirectly() {
+        long startTime = Metrics.start();
+        for (int i = startPoint; i < startPoint + length && !results.isCancelled(); i++) {
+            //fork the divergent part of the run off the checkpoint, then move the checkpoint on by a day, the run is finished
+            // before the checkpoint changes again so the checkpoint doesn't have to give up its states
+            Country instance = checkpoint.temporarySnapshot();
+            instance.setDayRecorder(results.getDayRecorder(i));
+            instance.calculateResults(i, i, duration);
+            results.record(i, instance);
+            checkpoint.calculateResults(i, i + 1, i + 1);
+        }
+        Metrics.record(Metrics.Phase.block, checkpoint.getName(), startTime);
+        results.reportProgress();
+    }
+}
@@ -22,7 +22,9 @@ OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
 SOFTWARE.
 */
 
-import java.util.ArrayList;
+package hoiproduction;
+
+import java.util.Objects;
 
 public class State {
     //CONSTANTS
@@ -33,15 +35,19 @@ public class State {
     private final int baseDockyards; //Only recorded because they take up slots that cannot be used by factories.
     private final IndustrialLevel industrialLevel;
     private final int bonusBuildingSlots;
-    //current info
-    private int buildingSlots;
-    private final ArrayList<MilFactory> milFactories;
+    //current info, the military factories themselves are kept by the country
+    private int milFactories;
     private int civFactories;
     //construction info
     private boolean civUnderConstruction;
     private double currentCivConstruction;
     private boolean milUnderConstruction;
     private double currentMilConstruction;
+    //identical states next to each other are simulated as one group, everything above is for each state in the group
+    private int count = 1;
+    //where the group's first state is in its country counting every state on its own, so build policies can tell the
+    // states apart however they are grouped
+    private int firstIndex;
     public enum IndustrialLevel {
         wasteland(0),
         enclave(0),
@@ -63,44 +69,72 @@ public class State {
     public State(int infrastructure, IndustrialLevel industrialLevel, int bonusBuildingSlots, int dockyards, int civFactories, int milFactories) {
         baseInfrastructure = infrastructure;
         this.industrialLevel = industrialLevel;
-        buildingSlots = industrialLevel.buildingSlots + bonusBuildingSlots;
         this.bonusBuildingSlots = bonusBuildingSlots;
         baseDockyards = dockyards;
         this.civFactories = civFactories;
-        this.milFactories = new ArrayList<>();
-        for (int i = 0; i < milFactories; i++) {
-            this.milFactories.add(new MilFactory(true));
-        }
-    }
-    public void setBuildingSlotsBonus(double newBonus) {
-        //increase the concentrated/dispersed industry tech for building slots
-        buildingSlots = (int) (industrialLevel.buildingSlots * (1 + newBonus)) + bonusBuildingSlots;
-    }
-    public void setProductionEfficiencyCapBonus(double capBonus) {
-        for (MilFactory milFactory : milFactories) {
-            milFactory.setProductionEfficiencyCapBonus(capBonus);
-        }
-    }
-    public void setProductionEfficiencyGainBonus(double gainBonus) {
-        for (MilFactory milFactory : milFactories) {
-            milFactory.setProductionEfficiencyGainBonus(gainBonus);
-        }
-    }
-    public double getMilProduction() {
-        double milProduction = 0;
-        for (MilFactory milFactory : milFactories) {
-            milProduction += milFactory.doProduction();
-        }
-        return milProduction;
+        this.milFactories = milFactories;
+    }
+    private State(State toCopy) {
+        baseInfrastructure = toCopy.baseInfrastructure;
+        industrialLevel = toCopy.industrialLevel;
+        bonusBuildingSlots = toCopy.bonusBuildingSlots;
+        baseDockyards = toCopy.baseDockyards;
+        civFactories = toCopy.civFactories;
+        milFactories = toCopy.milFactories;
+        civUnderConstruction = toCopy.civUnderConstruction;
+        currentCivConstruction = toCopy.currentCivConstruction;
+        milUnderConstruction = toCopy.milUnderConstruction;
+        currentMilConstruction = toCopy.currentMilConstruction;
+        count = toCopy.count;
+        firstIndex = toCopy.firstIndex;
+    }
+    public State snapshot() {
+        //copy everything including construction progress
+        return new State(this);
+    }
+    public int getLayoutHash() {
+        //covers everything which changes how the state is built in, including construction already under way
+        return Objects.hash(baseInfrastructure, baseDockyards, industrialLevel.ordinal(), bonusBuildingSlots, civFactories, milFactories,
+                civUnderConstruction, currentCivConstruction, milUnderConstruction, currentMilConstruction);
+    }
+    public int getCount() {
+        return count;
+    }
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+    public void setFirstIndex(int firstIndex) {
+        this.firstIndex = firstIndex;
+    }
+    public boolean matches(State other) {
+        //whether the two would be treated exactly the same by every simulation from now on
+        return baseInfrastructure == other.baseInfrastructure && baseDockyards == other.baseDockyards && industrialLevel == other.industrialLevel
+                && bonusBuildingSlots == other.bonusBuildingSlots && civFactories == other.civFactories && milFactories == other.milFactories
+                && civUnderConstruction == other.civUnderConstruction && currentCivConstruction == other.currentCivConstruction
+                && milUnderConstruction == other.milUnderConstruction && currentMilConstruction == other.currentMilConstruction;
+    }
+    public void join(State other) {
+        //other must match this state and is no longer used
+        count += other.count;
+    }
+    public State split(int keptCount) {
+        //keep the first keptCount states of the group in this one, the rest are returned as a new group
+        State rest = new State(this);
+        rest.count = count - keptCount;
+        rest.firstIndex = firstIndex + keptCount;
+        count = keptCount;
+        return rest;
     }
     public int getMilFactories() {
-        return milFactories.size();
+        return milFactories;
     }
     public int getCivFactories() {
         return civFactories;
     }
-    public int getFreeBuildingSlots() {
-        return buildingSlots - civFactories - milFactories.size() - baseDockyards;
+    public int getFreeBuildingSlots(double buildingSlotsBonus) {
+        //the bonus comes from the country's concentrated/dispersed industry tech
+        int buildingSlots = (int) (industrialLevel.buildingSlots * (1 + buildingSlotsBonus)) + bonusBuildingSlots;
+        return buildingSlots - civFactories - milFactories - baseDockyards;
     }
     public int getInfrastructureLevel() {
         return baseInfrastructure;
@@ -108,8 +142,12 @@ public class State {
     public boolean isCivUnderConstruction() {
         return civUnderConstruction;
     }
-    public void addCivConstruction(double productionToAdd) {
-        //add the given amount of production to factory construction progress and add a factory if required
+    public boolean isMilUnderConstruction() {
+        return milUnderConstruction;
+    }
+    public boolean addCivConstruction(double productionToAdd) {
+        //add the given amount of production to factory construction progress and add a factory if required, returns
+        // whether a factory was finished so the country can keep its totals up to date
         productionToAdd *= (1 + baseInfrastructure * 0.1);
         if (civUnderConstruction) {
             currentCivConstruction += productionToAdd;
@@ -121,10 +159,13 @@ public class State {
             currentCivConstruction = 0;
             civFactories +=1;
             civUnderConstruction = false;
+            return true;
         }
+        return false;
     }
-    public void addMilConstruction(double productionToAdd) {
-        //add the given amount of production to factory construction progress and add a factory if required
+    public boolean addMilConstruction(double productionToAdd) {
+        //add the given amount of production to factory construction progress and add a factory if required, returns
+        // whether a factory was finished so the country can keep its totals up to date
         productionToAdd *= (1 + baseInfrastructure * 0.1);
         if (milUnderConstruction) {
             currentMilConstruction += productionToAdd;
@@ -134,9 +175,11 @@ public class State {
         }
         if (currentMilConstruction >= MILITARY_FACTORY_COST) {
             currentMilConstruction = 0;
-            milFactories.add(new MilFactory(false));
+            milFactories++;
             milUnderConstruction = false;
+            return true;
         }
+        return false;
     }
     public int getDockyards() {
         return baseDockyards;
@@ -0,0 +1,258 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.TimeUnit;
+
+public class StrategyOptimiser {
+    //how often the best strategy's run is saved, so a change to it only has to be simulated from just before the change
+    private static final int CHECKPOINT_INTERVAL = 30;
+    //the smallest change made to the share of construction going to mils
+    private static final double SHARE_STEP = 0.25;
+    //how far phases are moved at first, this halves every time no change helps until it gets below a day
+    private static final int INITIAL_DAY_STEP = 64;
+
+    //starts from the best single switch day and keeps making whichever small change to the strategy helps most, trying
+    // all of the changes at once in parallel, until none help or the time runs out
+    private final Country country;
+    private final int duration;
+    private final long timeBudgetNanos;
+    private long deadline;
+    private int simulationsRun;
+
+    //the best strategy so far, its finished run and its run saved at every CHECKPOINT_INTERVAL days
+    private PhasedBuildPolicy bestPolicy;
+    private Country bestRun;
+    private final TreeMap<Integer, Country> checkpoints = new TreeMap<>();
+
+    public StrategyOptimiser(Country country, int duration, long timeBudgetMillis) {
+        //every checkpoint is a snapshot, so they can be snapshotted again by many threads at once
+        this.country = country.copy().snapshot();
+        this.duration = duration;
+        timeBudgetNanos = TimeUnit.MILLISECONDS.toNanos(timeBudgetMillis);
+    }
+    public Result findBestStrategy() {
+        deadline = System.nanoTime() + timeBudgetNanos;
+        //finding the single switch day comes out of the same time budget, so it stops early if it uses all of it
+        CutoffOptimiser.Result singleSwitch = new CutoffOptimiser(country, duration).findBestCutoff(deadline);
+        //the time spent finding the single switch day is already counted by the cutoff optimiser
+        long startTime = Metrics.start();
+        checkpoints.put(0, country);
+        setBestPolicy(PhasedBuildPolicy.cutoff(singleSwitch.getBestCutoff()), 0);
+        int dayStep = INITIAL_DAY_STEP;
+        while (dayStep >= 1 && System.nanoTime() < deadline) {
+            ArrayList<Candidate> candidates = new ArrayList<>();
+            for (PhasedBuildPolicy policy : getNeighbours(dayStep)) {
+                candidates.add(new Candidate(policy));
+            }
+            RecursiveAction allCandidates = new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    invokeAll(candidates);
+                }
+            };
+            if (ForkJoinTask.inForkJoinPool()) {
+                allCandidates.invoke();
+            } else {
+                SimulationProcessor.getSharedPool().invoke(allCandidates);
+            }
+            Candidate best = null;
+            for (Candidate candidate : candidates) {
+                if (candidate.finishedRun != null && (best == null || candidate.finishedRun.getMilProduction() > best.finishedRun.getMilProduction())) {
+                    best = candidate;
+                }
+            }
+            if (best != null && best.finishedRun.getMilProduction() > bestRun.getMilProduction()) {
+                setBestPolicy(best.policy, best.firstDifference);
+            } else {
+                dayStep /= 2;
+            }
+        }
+        Metrics.record(Metrics.Phase.strategy, country.getName(), startTime);
+        return new Result(bestPolicy, bestRun, singleSwitch.getMilProduction(), singleSwitch.getSimulationsRun() + simulationsRun);
+    }
+    private void setBestPolicy(PhasedBuildPolicy policy, int firstDifference) {
+        //checkpoints from before the new strategy first differs from the old one are still right, the rest are redone
+        checkpoints.tailMap(firstDifference, false).clear();
+        Map.Entry<Integer, Country> start = checkpoints.lastEntry();
+        Country run = start.getValue().snapshot();
+        for (int day = start.getKey(); day < duration; ) {
+            int nextDay = Math.min(duration, (day / CHECKPOINT_INTERVAL + 1) * CHECKPOINT_INTERVAL);
+            run.calculateResults(day, policy, nextDay);
+            if (nextDay < duration) {
+                checkpoints.put(nextDay, run.snapshot());
+            }
+            day = nextDay;
+        }
+        simulationsRun++;
+        bestPolicy = policy;
+        bestRun = run;
+    }
+    private ArrayList<PhasedBuildPolicy> getNeighbours(int dayStep) {
+        //every strategy one small change away from the best one: moving when a phase starts, removing a phase, or changing
+        // how much of a phase goes to mils, either for the whole phase or only its first or last dayStep days
+        HashSet<String> seen = new HashSet<>();
+        ArrayList<PhasedBuildPolicy> neighbours = new ArrayList<>();
+        seen.add(bestPolicy.toString());
+        int phaseCount = bestPolicy.getPhaseCount();
+        for (int phase = 0; phase < phaseCount; phase++) {
+            int start = bestPolicy.getPhaseStart(phase);
+            int end = phase + 1 < phaseCount ? bestPolicy.getPhaseStart(phase + 1) : duration;
+            double share = bestPolicy.getMilitaryShareOfPhase(phase);
+            if (phase > 0) {
+                for (int newStart : new int[] {start - dayStep, start + dayStep}) {
+                    if (newStart > bestPolicy.getPhaseStart(phase - 1) && newStart < end) {
+                        addNeighbour(seen, neighbours, replacePhase(bestPolicy, phase, newStart, share));
+                    }
+                }
+                addNeighbour(seen, neighbours, removePhase(bestPolicy, phase));
+            }
+            for (double newShare : new double[] {share - SHARE_STEP, share + SHARE_STEP}) {
+                if (newShare < 0 || newShare > 1) {
+                    continue;
+                }
+                addNeighbour(seen, neighbours, replacePhase(bestPolicy, phase, start, newShare));
+                if (start + dayStep < end) {
+                    addNeighbour(seen, neighbours, addPhase(replacePhase(bestPolicy, phase, start, newShare), phase, start + dayStep, share));
+                    addNeighbour(seen, neighbours, addPhase(bestPolicy, phase, end - dayStep, newShare));
+                }
+            }
+        }
+        return neighbours;
+    }
+    private static void addNeighbour(HashSet<String> seen, ArrayList<PhasedBuildPolicy> neighbours, PhasedBuildPolicy policy) {
+        //different changes can end up as the same strategy once phases are merged
+        if (seen.add(policy.toString())) {
+            neighbours.add(policy);
+        }
+    }
+    private static PhasedBuildPolicy replacePhase(PhasedBuildPolicy policy, int phase, int start, double share) {
+        return changePhases(policy, phase, start, share, true);
+    }
+    private static PhasedBuildPolicy addPhase(PhasedBuildPolicy policy, int after, int start, double share) {
+        return changePhases(policy, after, start, share, false);
+    }
+    private static PhasedBuildPolicy removePhase(PhasedBuildPolicy policy, int phase) {
+        int[] starts = new int[policy.getPhaseCount() - 1];
+        double[] shares = new double[starts.length];
+        for (int i = 0, j = 0; i < policy.getPhaseCount(); i++) {
+            if (i != phase) {
+                starts[j] = policy.getPhaseStart(i);
+                shares[j++] = policy.getMilitaryShareOfPhase(i);
+            }
+        }
+        return new PhasedBuildPolicy(starts, shares);
+    }
+    private static PhasedBuildPolicy changePhases(PhasedBuildPolicy policy, int phase, int start, double share, boolean replace) {
+        //either replaces the given phase or adds a new one straight after it
+        int count = policy.getPhaseCount() + (replace ? 0 : 1);
+        int[] starts = new int[count];
+        double[] shares = new double[count];
+        for (int i = 0, j = 0; i < policy.getPhaseCount(); i++, j++) {
+            if (i == phase && replace) {
+                starts[j] = start;
+                shares[j] = share;
+                continue;
+            }
+            starts[j] = policy.getPhaseStart(i);
+            shares[j] = policy.getMilitaryShareOfPhase(i);
+            if (i == phase) {
+                j++;
+                starts[j] = start;
+                shares[j] = share;
+            }
+        }
+        return new PhasedBuildPolicy(starts, shares);
+    }
+
+    private class Candidate extends RecursiveAction {
+        private final PhasedBuildPolicy policy;
+        private final int firstDifference;
+        private Country finishedRun;
+
+        private Candidate(PhasedBuildPolicy policy) {
+            this.policy = policy;
+            firstDifference = policy.getFirstDifference(bestPolicy);
+        }
+
+        @Override
+        protected void compute() {
+            //nothing new is started once the time is up, and a strategy which only changes after the end is the same
+            if (System.nanoTime() >= deadline || firstDifference >= duration) {
+                return;
+            }
+            Map.Entry<Integer, Country> start = checkpoints.floorEntry(firstDifference);
+            Country instance = start.getValue().snapshot();
+            instance.calculateResults(start.getKey(), policy, duration);
+            finishedRun = instance;
+            synchronized (StrategyOptimiser.this) {
+                simulationsRun++;
+            }
+        }
+    }
+
+    public static class Result {
+        private final PhasedBuildPolicy bestPolicy;
+        private final double milProduction;
+        private final int civFactories;
+        private final int milFactories;
+        private final double singleSwitchMilProduction;
+        private final int simulationsRun;
+
+        private Result(PhasedBuildPolicy bestPolicy, Country finishedRun, double singleSwitchMilProduction, int simulationsRun) {
+            this.bestPolicy = bestPolicy;
+            milProduction = finishedRun.getMilProduction();
+            civFactories = finishedRun.countCivFactories();
+            milFactories = finishedRun.countMilFactories();
+            this.singleSwitchMilProduction = singleSwitchMilProduction;
+            this.simulationsRun = simulationsRun;
+        }
+        public PhasedBuildPolicy getBestPolicy() {
+            return bestPolicy;
+        }
+        public double getMilProduction() {
+            return milProduction;
+        }
+        public int getCivFactories() {
+            return civFactories;
+        }
+        public int getMilFactories() {
+            return milFactories;
+        }
+        public double getSingleSwitchMilProduction() {
+            //the best the usual single switch strategy managed, for comparison
+            return singleSwitchMilProduction;
+        }
+        public int getSimulationsRun() {
+            return simulationsRun;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SweepCache {
+    private static final int MAXIMUM_ENTRIES = 8;
+
+    //least recently used sweeps are thrown away first
+    private final LinkedHashMap<String, SweepResults> sweeps = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, SweepResults> eldest) {
+            return size() > MAXIMUM_ENTRIES;
+        }
+    };
+
+    public synchronized SweepResults getSweep(Country country, int duration) {
+        //a sweep which was cancelled before it finished is no use to anyone
+        String key = getKey(country, duration);
+        SweepResults toReturn = sweeps.get(key);
+        if (toReturn != null && toReturn.isCancelled() && !toReturn.isComplete()) {
+            sweeps.remove(key);
+            toReturn = null;
+        }
+        return toReturn;
+    }
+    public synchronized void addSweep(Country country, SweepResults sweep) {
+        sweeps.put(getKey(country, sweep.getDuration()), sweep);
+    }
+    private static String getKey(Country country, int duration) {
+        return country.getParameterKey() + "/" + duration;
+    }
+}
@@ -0,0 +1,111 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+public class SweepResults {
+    //results for every cutoff day, indexed by the day the switch to military factories happened
+    private final double[] milProduction;
+    private final int[] civFactories;
+    private final int[] milFactories;
+    private final boolean[] finished;
+    private int finishedCount;
+    //set when the results are no longer wanted so the simulations producing them can stop early
+    private volatile boolean cancelled;
+    private final ProgressListener progressListener;
+    //writes out every day of every run when set, the runs themselves are still thrown away
+    private TrajectoryRecorder trajectoryRecorder;
+
+    public interface ProgressListener {
+        //called from a simulation thread each time a block of cutoff days has been finished
+        void progressMade(SweepResults results);
+    }
+    public SweepResults(int duration) {
+        this(duration, null);
+    }
+    public SweepResults(int duration, ProgressListener progressListener) {
+        milProduction = new double[duration];
+        civFactories = new int[duration];
+        milFactories = new int[duration];
+        finished = new boolean[duration];
+        this.progressListener = progressListener;
+    }
+    public void setTrajectoryRecorder(TrajectoryRecorder trajectoryRecorder) {
+        //must be set before the sweep starts
+        this.trajectoryRecorder = trajectoryRecorder;
+    }
+    public DayRecorder getDayRecorder(int cutoffDay) {
+        return trajectoryRecorder == null ? null : trajectoryRecorder.getRecorder(cutoffDay);
+    }
+    public DayRecorder getAllCivilianDayRecorder() {
+        return trajectoryRecorder == null ? null : trajectoryRecorder.getAllCivilianRecorder();
+    }
+    public synchronized void record(int cutoffDay, Country finishedCountry) {
+        //only keep the numbers so the finished country can be thrown away
+        milProduction[cutoffDay] = finishedCountry.getMilProduction();
+        civFactories[cutoffDay] = finishedCountry.countCivFactories();
+        milFactories[cutoffDay] = finishedCountry.countMilFactories();
+        if (!finished[cutoffDay]) {
+            finished[cutoffDay] = true;
+            finishedCount++;
+        }
+    }
+    public void reportProgress() {
+        if (progressListener != null && !cancelled) {
+            progressListener.progressMade(this);
+        }
+    }
+    public void cancel() {
+        cancelled = true;
+    }
+    public boolean isCancelled() {
+        return cancelled;
+    }
+    public synchronized boolean isComplete() {
+        return finishedCount == finished.length;
+    }
+    public synchronized int[] getFinishedCutoffs() {
+        //the cutoff days which have results so far, in order
+        int[] toReturn = new int[finishedCount];
+        int position = 0;
+        for (int i = 0; i < finished.length; i++) {
+            if (finished[i]) {
+                toReturn[position++] = i;
+            }
+        }
+        return toReturn;
+    }
+    public int getDuration() {
+        return milProduction.length;
+    }
+    public synchronized double getMilProduction(int cutoffDay) {
+        return milProduction[cutoffDay];
+    }
+    public synchronized int getCivFactories(int cutoffDay) {
+        return civFactories[cutoffDay];
+    }
+    public synchronized int getMilFactories(int cutoffDay) {
+        return milFactories[cutoffDay];
+    }
+}
@@ -0,0 +1,67 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+public class TechTimeline {
+    //every day something changes for a country without depending on how it was simulated, in order, so the day loop
+    // only has to compare the current day with the next one instead of checking every tech each day
+    //never changed once made, so one timeline is shared by a country and all of its snapshots
+    public enum Event {
+        construction,
+        industry,
+        tools,
+        toolsSpecial,
+        economyLaw //the next economy law is adopted
+    }
+    private final int[] days;
+    private final Event[] events;
+
+    public TechTimeline(ArrayList<Integer> unsortedDays, ArrayList<Event> unsortedEvents) {
+        //the sort is stable, so events on the same day happen in the order they were added
+        Integer[] order = new Integer[unsortedDays.size()];
+        Arrays.setAll(order, i -> i);
+        Arrays.sort(order, Comparator.comparingInt(unsortedDays::get));
+        days = new int[order.length];
+        events = new Event[order.length];
+        for (int i = 0; i < order.length; i++) {
+            days[i] = unsortedDays.get(order[i]);
+            events[i] = unsortedEvents.get(order[i]);
+        }
+    }
+    public int size() {
+        return days.length;
+    }
+    public int getDay(int index) {
+        //past the last event the next one is never reached
+        return index < days.length ? days[index] : Integer.MAX_VALUE;
+    }
+    public Event getEvent(int index) {
+        return events[index];
+    }
+}
@@ -0,0 +1,92 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class TrajectoryReader {
+    //reads a file written by TrajectoryRecorder without loading it, days are only read from disk when asked for
+    private final int duration;
+    private final MappedByteBuffer[] columns = new MappedByteBuffer[TrajectoryRecorder.COLUMN_WIDTHS.length];
+
+    public TrajectoryReader(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, TrajectoryRecorder.HEADER_SIZE);
+            if (header.getInt() != TrajectoryRecorder.MAGIC || header.getInt() != TrajectoryRecorder.VERSION) {
+                throw new IOException(file + " is not a trajectory file");
+            }
+            duration = header.getInt();
+            long rowCount = TrajectoryRecorder.getRowCount(duration);
+            TrajectoryRecorder.checkColumnSize(duration, rowCount);
+            long offset = TrajectoryRecorder.HEADER_SIZE;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = channel.map(FileChannel.MapMode.READ_ONLY, offset, rowCount * TrajectoryRecorder.COLUMN_WIDTHS[i]);
+                offset += rowCount * TrajectoryRecorder.COLUMN_WIDTHS[i];
+            }
+        }
+    }
+    public int getDuration() {
+        return duration;
+    }
+    //cutoffDay can be the duration to read the run which never switched
+    public int getCivFactories(int cutoffDay, int day) {
+        return columns[TrajectoryRecorder.CIV_FACTORIES].getInt(getRow(cutoffDay, day) * 4);
+    }
+    public int getMilFactories(int cutoffDay, int day) {
+        return columns[TrajectoryRecorder.MIL_FACTORIES].getInt(getRow(cutoffDay, day) * 4);
+    }
+    public double getConstructionPoints(int cutoffDay, int day) {
+        return columns[TrajectoryRecorder.CONSTRUCTION_POINTS].getFloat(getRow(cutoffDay, day) * 4);
+    }
+    public int getEconomyLaw(int cutoffDay, int day) {
+        //0 for civilian economy up to 3 for war economy
+        return columns[TrajectoryRecorder.ECONOMY_LAW].get(getRow(cutoffDay, day));
+    }
+    public double getMilProduction(int cutoffDay, int day) {
+        return columns[TrajectoryRecorder.MIL_PRODUCTION].getFloat(getRow(cutoffDay, day) * 4);
+    }
+    private int getRow(int cutoffDay, int day) {
+        if (cutoffDay < 0 || cutoffDay > duration || day < 0 || day >= duration) {
+            throw new IndexOutOfBoundsException("cutoff " + cutoffDay + " day " + day + " outside of " + duration + " days");
+        }
+        return (int) TrajectoryRecorder.getRow(duration, cutoffDay, day);
+    }
+    public void printRun(int cutoffDay, PrintStream output) {
+        //checked before the header so a bad cutoff doesn't leave half a file
+        if (cutoffDay < 0 || cutoffDay > duration) {
+            throw new IndexOutOfBoundsException("cutoff " + cutoffDay + " outside of " + duration + " days");
+        }
+        output.println("day,civFactories,milFactories,constructionPoints,economyLaw,milProduction");
+        for (int day = 0; day < duration; day++) {
+            output.println(day + "," + getCivFactories(cutoffDay, day) + "," + getMilFactories(cutoffDay, day) + ","
+                    + getConstructionPoints(cutoffDay, day) + "," + getEconomyLaw(cutoffDay, day) + "," + getMilProduction(cutoffDay, day));
+        }
+    }
+}
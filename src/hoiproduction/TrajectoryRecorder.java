@@ -0,0 +1,114 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+public class TrajectoryRecorder implements Closeable {
+    //writes every day of every run in a sweep to a file, one column at a time so each column can be read on its own
+    //every run is the same as the all-civilian run before its cutoff day, so that run is written once in full and the
+    // others only from their cutoff day onwards, the file is memory mapped so nothing is kept on the heap
+    static final int MAGIC = 0x484f4954; //HOIT
+    static final int VERSION = 2;
+    static final int HEADER_SIZE = 16;
+    //bytes per day in each column: civ factories, mil factories, construction points, economy law, production
+    //the factory counts are ints, a short would wrap for a long enough game with a big enough country
+    static final int[] COLUMN_WIDTHS = {4, 4, 4, 1, 4};
+    private static final int WIDEST_COLUMN = 4;
+    static final int CIV_FACTORIES = 0;
+    static final int MIL_FACTORIES = 1;
+    static final int CONSTRUCTION_POINTS = 2;
+    static final int ECONOMY_LAW = 3;
+    static final int MIL_PRODUCTION = 4;
+
+    private final int duration;
+    private final MappedByteBuffer[] columns = new MappedByteBuffer[COLUMN_WIDTHS.length];
+
+    public TrajectoryRecorder(File file, int duration) throws IOException {
+        this.duration = duration;
+        long rowCount = getRowCount(duration);
+        checkColumnSize(duration, rowCount);
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(duration).putInt(COLUMN_WIDTHS.length);
+            //the mappings stay valid after the channel is closed
+            long offset = HEADER_SIZE;
+            for (int i = 0; i < COLUMN_WIDTHS.length; i++) {
+                columns[i] = channel.map(FileChannel.MapMode.READ_WRITE, offset, rowCount * COLUMN_WIDTHS[i]);
+                offset += rowCount * COLUMN_WIDTHS[i];
+            }
+        }
+    }
+    static long getRowCount(int duration) {
+        //the all-civilian run, then duration - c days for every cutoff c
+        return duration + (long) duration * (duration + 1) / 2;
+    }
+    static void checkColumnSize(int duration, long rowCount) throws IOException {
+        //each column is mapped in one piece and a mapping can't be bigger than Integer.MAX_VALUE bytes
+        if (duration < 0 || rowCount * WIDEST_COLUMN > Integer.MAX_VALUE) {
+            throw new IOException("a trajectory file can't hold " + duration + " days, the columns would be bigger than 2GB");
+        }
+    }
+    static long getRow(int duration, int cutoffDay, int day) {
+        //cutoffDay == duration means the all-civilian run, which is also every run before its cutoff
+        if (day < cutoffDay) {
+            return day;
+        }
+        return duration + (long) cutoffDay * duration - (long) cutoffDay * (cutoffDay - 1) / 2 + (day - cutoffDay);
+    }
+    public DayRecorder getRecorder(int cutoffDay) {
+        //each run writes to its own rows through its own views of the columns, buffers aren't thread safe even for
+        // absolute puts, so runs can be recorded from many threads at once
+        ByteBuffer civFactoryColumn = columns[CIV_FACTORIES].duplicate();
+        ByteBuffer milFactoryColumn = columns[MIL_FACTORIES].duplicate();
+        ByteBuffer constructionColumn = columns[CONSTRUCTION_POINTS].duplicate();
+        ByteBuffer economyLawColumn = columns[ECONOMY_LAW].duplicate();
+        ByteBuffer milProductionColumn = columns[MIL_PRODUCTION].duplicate();
+        return (day, civFactories, milFactories, constructionPoints, economyLaw, milProduction) -> {
+            int row = (int) getRow(duration, cutoffDay, day);
+            civFactoryColumn.putInt(row * 4, civFactories);
+            milFactoryColumn.putInt(row * 4, milFactories);
+            constructionColumn.putFloat(row * 4, (float) constructionPoints);
+            economyLawColumn.put(row, (byte) economyLaw);
+            milProductionColumn.putFloat(row * 4, (float) milProduction);
+        };
+    }
+    public DayRecorder getAllCivilianRecorder() {
+        return getRecorder(duration);
+    }
+    @Override
+    public void close() {
+        for (MappedByteBuffer column : columns) {
+            column.force();
+        }
+    }
+}
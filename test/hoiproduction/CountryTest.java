@@ -0,0 +1,77 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class CountryTest {
+    private static final int DURATION = 1500;
+
+    private static State[] createStates() {
+        //runs of identical states so most of them start out grouped
+        Random random = new Random(5);
+        State.IndustrialLevel[] levels = {State.IndustrialLevel.rural, State.IndustrialLevel.town, State.IndustrialLevel.pastoral};
+        ArrayList<State> states = new ArrayList<>();
+        while (states.size() < 300) {
+            int runLength = 1 + random.nextInt(12);
+            State.IndustrialLevel level = levels[random.nextInt(levels.length)];
+            int infrastructure = 1 + random.nextInt(3);
+            int civFactories = random.nextInt(2);
+            int milFactories = random.nextInt(4) == 0 ? 1 : 0;
+            for (int i = 0; i < runLength; i++) {
+                states.add(new State(infrastructure, level, 0, 0, civFactories, milFactories));
+            }
+        }
+        return states.toArray(new State[0]);
+    }
+    private static void assertSameGroupedAndUngrouped(BuildPolicy buildPolicy) {
+        Country grouped = new Country(createStates(), 0.55, 0.3, "TST", false, ResearchPlan.DEFAULT, true);
+        Country ungrouped = new Country(createStates(), 0.55, 0.3, "TST", false, ResearchPlan.DEFAULT, false);
+        grouped.calculateResults(0, buildPolicy, DURATION);
+        ungrouped.calculateResults(0, buildPolicy, DURATION);
+        assertEquals(ungrouped.getMilProduction(), grouped.getMilProduction());
+        assertEquals(ungrouped.countCivFactories(), grouped.countCivFactories());
+        assertEquals(ungrouped.countMilFactories(), grouped.countMilFactories());
+    }
+
+    @Test
+    public void cutoffPolicyIsTheSameGroupedAndUngrouped() {
+        assertSameGroupedAndUngrouped(BuildPolicy.cutoff(400));
+    }
+    @Test
+    public void perStatePolicyIsTheSameGroupedAndUngrouped() {
+        //states next to each other in a group switch to mils on different days
+        assertSameGroupedAndUngrouped((currentDay, stateIndex, constructionShare) -> currentDay >= 200 + (stateIndex % 7) * 60);
+    }
+    @Test
+    public void phasedPolicyIsTheSameGroupedAndUngrouped() {
+        assertSameGroupedAndUngrouped(new PhasedBuildPolicy(new int[] {0, 300, 700}, new double[] {0.2, 0.6, 1}));
+    }
+}
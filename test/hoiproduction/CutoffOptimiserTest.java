@@ -0,0 +1,60 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CutoffOptimiserTest {
+    private static final int DURATION = 400;
+
+    private static Country createCountry() {
+        State[] states = new State[6];
+        for (int i = 0; i < states.length; i++) {
+            states[i] = new State(2 + i % 3, State.IndustrialLevel.city, 1, i % 2, 4, 1);
+        }
+        return new Country(states, 0.6, 0.3, "TST");
+    }
+
+    @Test
+    public void passedDeadlineStopsAfterOneCutoff() {
+        Country country = createCountry();
+        CutoffOptimiser.Result result = new CutoffOptimiser(country, DURATION).findBestCutoff(System.nanoTime());
+        assertEquals(1, result.getSimulationsRun());
+        Country independent = country.copy();
+        independent.calculateResults(result.getBestCutoff(), DURATION);
+        assertEquals(independent.getMilProduction(), result.getMilProduction(), 1e-9 * independent.getMilProduction());
+    }
+    @Test
+    public void laterDeadlineFindsAtLeastAsGoodACutoff() {
+        Country country = createCountry();
+        CutoffOptimiser.Result early = new CutoffOptimiser(country, DURATION).findBestCutoff(System.nanoTime());
+        CutoffOptimiser.Result full = new CutoffOptimiser(country, DURATION).findBestCutoff();
+        assertTrue(full.getSimulationsRun() > 1);
+        assertTrue(full.getMilProduction() >= early.getMilProduction());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class GameDataLoaderTest {
+    @TempDir
+    Path directory;
+    private String historyPath;
+    private File snapshotFile;
+
+    @BeforeEach
+    public void writeHistoryFiles() throws IOException {
+        Path history = directory.resolve("history");
+        Files.createDirectories(history.resolve("states"));
+        Files.createDirectories(history.resolve("countries"));
+        writeCountry(history, "SOV - Soviet Union.txt", 0.5, 0.2);
+        writeCountry(history, "GER - Germany.txt", 0.6, 0.4);
+        writeState(history, 1, "SOV", "rural", 3, 2, 1);
+        writeState(history, 2, "SOV", "city", 5, 4, 0);
+        writeState(history, 3, "GER", "town", 2, 0, 2);
+        writeState(history, 4, "SOV", "rural", 3, 2, 1);
+        //owned by a country which has no file, so it is left out
+        writeState(history, 5, "ENG", "large_city", 4, 3, 3);
+        historyPath = history + "/";
+        snapshotFile = directory.resolve("snapshot.cache").toFile();
+    }
+    private static void writeCountry(Path history, String fileName, double stability, double warSupport) throws IOException {
+        String text = "capital = 1\n\nset_stability = " + stability + "\nset_war_support = " + warSupport + "\n";
+        Files.write(history.resolve("countries").resolve(fileName), text.getBytes(StandardCharsets.UTF_8));
+    }
+    private static void writeState(Path history, int id, String owner, String category, int infrastructure, int civFactories,
+                                   int milFactories) throws IOException {
+        String text = "state={\n\tid=" + id + "\n\tname=\"STATE_" + id + "\"\n\tstate_category = " + category + "\n\thistory={\n"
+                + "\t\towner = " + owner + "\n\t\tbuildings = {\n\t\t\tinfrastructure = " + infrastructure + "\n"
+                + "\t\t\tindustrial_complex = " + civFactories + "\n\t\t\tarms_factory = " + milFactories + "\n\t\t}\n\t}\n}\n";
+        Files.write(history.resolve("states").resolve(id + "-STATE_" + id + ".txt"), text.getBytes(StandardCharsets.UTF_8));
+    }
+    private Path stateFile(int id) {
+        return directory.resolve("history").resolve("states").resolve(id + "-STATE_" + id + ".txt");
+    }
+    private long getFingerprint() {
+        File[] stateFiles = new File(historyPath + "states/").listFiles();
+        File[] countryFiles = new File(historyPath + "countries/").listFiles();
+        return GameDataLoader.getFingerprint(historyPath, stateFiles, countryFiles);
+    }
+    static void assertSameIndex(GameDataLoader.CountryIndex expected, GameDataLoader.CountryIndex actual) {
+        assertEquals(expected.getCountryCodes(), actual.getCountryCodes());
+        for (String countryCode : expected.getCountryCodes()) {
+            assertEquals(expected.getCountry(countryCode).getParameterKey(), actual.getCountry(countryCode).getParameterKey());
+            State[] expectedStates = expected.getStates(countryCode);
+            State[] actualStates = actual.getStates(countryCode);
+            assertEquals(expectedStates.length, actualStates.length);
+            for (int i = 0; i < expectedStates.length; i++) {
+                assertTrue(expectedStates[i].matches(actualStates[i]), countryCode + " state " + i);
+                assertEquals(expectedStates[i].getInfrastructureLevel(), actualStates[i].getInfrastructureLevel());
+            }
+        }
+    }
+
+    @Test
+    public void snapshotRoundTrip() {
+        GameDataLoader.CountryIndex parsed = GameDataLoader.parseCountryIndex(historyPath);
+        GameDataLoader.writeSnapshot(snapshotFile, 42, parsed);
+        GameDataLoader.CountryIndex read = GameDataLoader.readSnapshot(snapshotFile, 42);
+        assertNotNull(read);
+        assertSameIndex(parsed, read);
+        assertEquals(3, read.getStates("SOV").length);
+        assertEquals(1, read.getStates("GER").length);
+        assertFalse(read.getCountryCodes().contains("ENG"));
+        //a snapshot made from different files is not used
+        assertNull(GameDataLoader.readSnapshot(snapshotFile, 43));
+        //no temporary files are left next to it
+        assertEquals(1, directory.toFile().listFiles(file -> file.getName().startsWith(snapshotFile.getName())).length);
+    }
+    @Test
+    public void loadingWritesAndReusesSnapshot() {
+        GameDataLoader.CountryIndex parsed = GameDataLoader.getCountryIndex(historyPath, false, snapshotFile);
+        assertTrue(snapshotFile.isFile());
+        assertNotNull(GameDataLoader.readSnapshot(snapshotFile, getFingerprint()));
+        assertSameIndex(parsed, GameDataLoader.getCountryIndex(historyPath, false, snapshotFile));
+    }
+    @Test
+    public void changedModificationTimeInvalidatesSnapshot() throws IOException {
+        GameDataLoader.getCountryIndex(historyPath, false, snapshotFile);
+        long fingerprint = getFingerprint();
+        //the same size, only the number of civs is different
+        Path changedState = stateFile(2);
+        String text = new String(Files.readAllBytes(changedState), StandardCharsets.UTF_8).replace("industrial_complex = 4", "industrial_complex = 1");
+        Files.write(changedState, text.getBytes(StandardCharsets.UTF_8));
+        assertTrue(changedState.toFile().setLastModified(changedState.toFile().lastModified() + 10000));
+        assertNotEquals(fingerprint, getFingerprint());
+        assertNull(GameDataLoader.readSnapshot(snapshotFile, getFingerprint()));
+        GameDataLoader.CountryIndex reloaded = GameDataLoader.getCountryIndex(historyPath, false, snapshotFile);
+        assertEquals(1, reloaded.getStates("SOV")[1].getCivFactories());
+    }
+    @Test
+    public void changedSizeInvalidatesSnapshot() throws IOException {
+        GameDataLoader.getCountryIndex(historyPath, false, snapshotFile);
+        long fingerprint = getFingerprint();
+        //a different size with the modification time put back
+        Path changedState = stateFile(3);
+        long lastModified = changedState.toFile().lastModified();
+        String text = new String(Files.readAllBytes(changedState), StandardCharsets.UTF_8).replace("arms_factory = 2", "arms_factory = 12");
+        Files.write(changedState, text.getBytes(StandardCharsets.UTF_8));
+        assertTrue(changedState.toFile().setLastModified(lastModified));
+        assertNotEquals(fingerprint, getFingerprint());
+        GameDataLoader.CountryIndex reloaded = GameDataLoader.getCountryIndex(historyPath, false, snapshotFile);
+        assertEquals(12, reloaded.getStates("GER")[0].getMilFactories());
+    }
+    @Test
+    public void lazyLoadingMatchesEagerLoading() {
+        GameDataLoader.CountryIndex eager = GameDataLoader.getCountryIndex(historyPath, false, directory.resolve("eager.cache").toFile());
+        GameDataLoader.CountryIndex lazy = GameDataLoader.getCountryIndex(historyPath, true, snapshotFile);
+        assertSameIndex(eager, lazy);
+    }
+    @Test
+    public void lazyLoadingOnlySavesSnapshotWhenAsked() {
+        GameDataLoader.CountryIndex lazy = GameDataLoader.getCountryIndex(historyPath, true, snapshotFile);
+        //one country is loaded, the other is left for saveSnapshot() to load
+        lazy.getCountry("GER");
+        assertFalse(snapshotFile.exists());
+        lazy.saveSnapshot();
+        GameDataLoader.CountryIndex saved = GameDataLoader.readSnapshot(snapshotFile, getFingerprint());
+        assertNotNull(saved);
+        assertSameIndex(GameDataLoader.parseCountryIndex(historyPath), saved);
+    }
+    private GameDataLoader.FileSection parse(String text) throws IOException {
+        Path file = directory.resolve("section.txt");
+        Files.write(file, text.getBytes(StandardCharsets.UTF_8));
+        return GameDataLoader.processGameData(file.toFile());
+    }
+    private static String getValue(GameDataLoader.FileSection section, String path) {
+        return section.getFirstValueByPath(new GameDataLoader.SectionPath(path));
+    }
+    @Test
+    public void fileSectionSeveralPairsOnOneLine() throws IOException {
+        GameDataLoader.FileSection root = parse("state={ id=5 state_category = town manpower = 1000 }");
+        assertEquals("5", getValue(root, "state/id"));
+        assertEquals("town", getValue(root, "state/state_category"));
+        assertEquals("1000", getValue(root, "state/manpower"));
+        assertEquals("section.txt", getValue(root, "fileName"));
+    }
+    @Test
+    public void fileSectionNestedBracesOnOneLine() throws IOException {
+        GameDataLoader.FileSection root = parse("state={history={owner=SOV buildings={infrastructure=3 arms_factory=2}} provinces={1 2 3}}");
+        assertEquals("SOV", getValue(root, "state/history/owner"));
+        assertEquals("3", getValue(root, "state/history/buildings/infrastructure"));
+        assertEquals("2", getValue(root, "state/history/buildings/arms_factory"));
+        assertEquals(Arrays.asList("1", "2", "3"), root.getSubSection("state").getSubSection("provinces").getValues());
+        //anonymous blocks go back to the section they were opened in
+        GameDataLoader.FileSection anonymous = parse("a={ { b=1 } c=2 }");
+        assertEquals("1", getValue(anonymous, "a/b"));
+        assertEquals("2", getValue(anonymous, "a/c"));
+    }
+    @Test
+    public void fileSectionQuotedStrings() throws IOException {
+        GameDataLoader.FileSection root = parse("state={ name=\"A = {strange} # name\" owner = \"GER\" }");
+        assertEquals("A = {strange} # name", getValue(root, "state/name"));
+        assertEquals("GER", getValue(root, "state/owner"));
+    }
+    @Test
+    public void fileSectionComments() throws IOException {
+        GameDataLoader.FileSection root = parse("# owner = ENG\nstate={ # a comment with { braces\n\towner = SOV # owner = GER }\n}\n# the end");
+        assertEquals("SOV", getValue(root, "state/owner"));
+        assertEquals(Arrays.asList("SOV"), root.getSubSection("state").getSubSection("owner").getValues());
+        assertEquals("", getValue(root, "owner"));
+    }
+    @Test
+    public void fileSectionExtraClosingBraceStopsParsing() throws IOException {
+        //the game stops reading a file at a closing brace with nothing to close, so the same is done here
+        GameDataLoader.FileSection root = parse("a=1 } b=2");
+        assertEquals("1", getValue(root, "a"));
+        assertEquals("", getValue(root, "b"));
+    }
+}
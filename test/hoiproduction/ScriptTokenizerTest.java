@@ -0,0 +1,87 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ScriptTokenizerTest {
+    private static List<String> tokenize(String text) {
+        //words are given as their text, everything else as its token type
+        ScriptTokenizer tokenizer = new ScriptTokenizer(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        ArrayList<String> tokens = new ArrayList<>();
+        ScriptTokenizer.TokenType token;
+        while ((token = tokenizer.next()) != ScriptTokenizer.TokenType.end) {
+            tokens.add(token == ScriptTokenizer.TokenType.word ? "'" + tokenizer.getWord() + "'" : token.toString());
+        }
+        return tokens;
+    }
+
+    @Test
+    public void severalPairsOnOneLine() {
+        assertEquals(Arrays.asList("'a'", "operator", "'1'", "'b'", "operator", "'2'", "'c'", "operator", "'3'"),
+                tokenize("a = 1 b=2\tc =3"));
+    }
+    @Test
+    public void nestedBracesOnOneLine() {
+        assertEquals(Arrays.asList("'x'", "operator", "open", "'y'", "operator", "open", "'z'", "operator", "'1'", "close", "close"),
+                tokenize("x={y={z=1}}"));
+    }
+    @Test
+    public void quotedStringsKeepSpecialCharacters() {
+        assertEquals(Arrays.asList("'name'", "operator", "'a b = {c} # d'", "'next'"), tokenize("name = \"a b = {c} # d\" next"));
+        assertEquals(Arrays.asList("'name'", "operator", "''"), tokenize("name=\"\""));
+    }
+    @Test
+    public void commentsAreSkipped() {
+        assertEquals(Arrays.asList("'a'", "operator", "'1'", "'b'", "operator", "'2'"),
+                tokenize("# a comment = { with braces\na = 1 # trailing }\r\nb = 2 # no newline at the end"));
+        assertEquals(Arrays.asList("'a'", "operator", "'1'"), tokenize("a = 1#straight after a word"));
+    }
+    @Test
+    public void comparisonOperators() {
+        assertEquals(Arrays.asList("'a'", "operator", "'1'", "'b'", "operator", "'2'", "'c'", "operator", "'3'", "'d'", "operator", "'4'"),
+                tokenize("a<=1 b >= 2 c!=3 d<4"));
+    }
+    @Test
+    public void byteOrderMarkIsSkipped() {
+        assertEquals(Arrays.asList("'a'", "operator", "'1'"), tokenize("\uFEFFa = 1"));
+    }
+    @Test
+    public void isWordComparesWithoutMakingAString() {
+        ScriptTokenizer tokenizer = new ScriptTokenizer(ByteBuffer.wrap("owner".getBytes(StandardCharsets.UTF_8)));
+        tokenizer.next();
+        assertTrue(tokenizer.isWord("owner"));
+        assertTrue(!tokenizer.isWord("owned") && !tokenizer.isWord("own"));
+    }
+}
@@ -0,0 +1,91 @@
+/*
+MIT License
+
+Copyright (c) 2021 fat-beaver
+
+Permission is hereby granted, free of charge, to any person obtaining a copy
+of this software and associated documentation files (the "Software"), to deal
+in the Software without restriction, including without limitation the rights
+to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+copies of the Software, and to permit persons to whom the Software is
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all
+copies or substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+SOFTWARE.
+*/
+
+package hoiproduction;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SimulationProcessorTest {
+    private static final int DURATION = 700;
+    private static final int SMALL_STATES = 3;
+    //the small states are built in first and only have one slot, so they are all full well before this day
+    private static final int FULL_STATE_DAY = 250;
+
+    private static Country createCountry() {
+        ArrayList<State> states = new ArrayList<>();
+        for (int i = 0; i < SMALL_STATES; i++) {
+            states.add(new State(5, State.IndustrialLevel.pastoral, 0, 0, 0, 0));
+        }
+        //already full, so it is never built in
+        states.add(new State(3, State.IndustrialLevel.rural, 0, 0, 1, 1));
+        for (int i = 0; i < 8; i++) {
+            states.add(new State(2 + i % 3, State.IndustrialLevel.megalopolis, 1, i % 2, 10, 2));
+        }
+        states.add(new State(1, State.IndustrialLevel.town, 0, 0, 0, 0));
+        return new Country(states.toArray(new State[0]), 0.6, 0.3, "TST");
+    }
+
+    @Test
+    public void sweepMatchesIndependentRuns() {
+        Country country = createCountry();
+        SweepResults results = new SweepResults(DURATION);
+        SimulationProcessor.getSharedPool().invoke(new SimulationProcessor(country.copy(), DURATION, results));
+        assertTrue(results.isComplete());
+
+        //a spread of cutoffs, plus the days either side of the first tools tech and one after the small states are full
+        TreeSet<Integer> cutoffs = new TreeSet<>();
+        for (int cutoff = 0; cutoff < DURATION; cutoff += 53) {
+            cutoffs.add(cutoff);
+        }
+        int toolsDay = ResearchPlan.DEFAULT.getCompletionDays(TechTimeline.Event.tools)[0];
+        cutoffs.add(toolsDay - 1);
+        cutoffs.add(toolsDay);
+        cutoffs.add(toolsDay + 1);
+        cutoffs.add(FULL_STATE_DAY);
+        cutoffs.add(DURATION - 1);
+
+        for (int cutoff : cutoffs) {
+            Country independent = country.copy();
+            independent.calculateResults(cutoff, DURATION);
+            assertEquals(independent.getMilProduction(), results.getMilProduction(cutoff), 1e-9 * independent.getMilProduction(),
+                    "production for cutoff " + cutoff);
+            assertEquals(independent.countCivFactories(), results.getCivFactories(cutoff), "civs for cutoff " + cutoff);
+            assertEquals(independent.countMilFactories(), results.getMilFactories(cutoff), "mils for cutoff " + cutoff);
+        }
+    }
+    @Test
+    public void smallStatesAreFullByTheFullStateCutoff() {
+        //makes sure the full state cutoff above really comes after states have been filled
+        Country country = createCountry();
+        int startingCivFactories = country.countCivFactories();
+        country.calculateResults(FULL_STATE_DAY, FULL_STATE_DAY);
+        assertTrue(country.countCivFactories() >= startingCivFactories + SMALL_STATES);
+    }
+}